@@ -0,0 +1,63 @@
+package com.merfonteen.productcatalog.benchmark;
+
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+final class BenchmarkData {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description of product " + id)
+                .price(BigDecimal.valueOf(id % 10_000, 2))
+                .category("Category " + id % 50)
+                .stock((int) (id % 500))
+                .createdAt(CREATED_AT.plusSeconds(id))
+                .updatedAt(CREATED_AT.plusSeconds(id))
+                .build();
+    }
+
+    static List<Product> products(int size) {
+        return LongStream.rangeClosed(1, size).mapToObj(BenchmarkData::product).toList();
+    }
+
+    static ProductResponseDto productDto(long id) {
+        Product product = product(id);
+        return ProductResponseDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .category(product.getCategory())
+                .stock(product.getStock())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    static List<ProductResponseDto> productDtos(int size) {
+        return LongStream.rangeClosed(1, size).mapToObj(BenchmarkData::productDto).toList();
+    }
+
+    static ProductPageResponseDto page(int size) {
+        return ProductPageResponseDto.builder()
+                .products(productDtos(size))
+                .currentPage(0)
+                .totalPages(1_000_000 / size)
+                .totalElements(1_000_000L)
+                .isLastPage(false)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.merfonteen.productcatalog.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.merfonteen.productcatalog.cache.ProductCacheValueSerializer;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache value encoding for "product-by-id" (single DTO) and "products-by-category" (list of DTOs).
+ * The serialized size of each variant is printed once per trial, since it matters as much as the speed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+
+    @Param({"jdk", "generic-jackson", "typed-jackson", "compact"})
+    private String serializer;
+
+    @Param({"20"})
+    private int listSize;
+
+    private RedisSerializer<Object> productSerializer;
+    private RedisSerializer<Object> listSerializer;
+    private ProductResponseDto product;
+    private List<ProductResponseDto> products;
+    private byte[] productBytes;
+    private byte[] listBytes;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.productDto(1);
+        // The mapper hands the cache an ArrayList, which default typing can round-trip
+        products = new ArrayList<>(BenchmarkData.productDtos(listSize));
+        productSerializer = serializer(mapper -> mapper.constructType(ProductResponseDto.class));
+        listSerializer = serializer(mapper -> mapper.getTypeFactory().constructCollectionType(List.class, ProductResponseDto.class));
+        productBytes = productSerializer.serialize(product);
+        listBytes = listSerializer.serialize(products);
+        System.out.printf("%n%s: product %d bytes, list of %d %d bytes%n",
+                serializer, productBytes.length, listSize, listBytes.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> serializer(Function<ObjectMapper, JavaType> type) {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        return switch (serializer) {
+            case "jdk" -> new JdkSerializationRedisSerializer();
+            case "generic-jackson" -> new GenericJackson2JsonRedisSerializer(objectMapper.activateDefaultTyping(
+                    LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY));
+            case "compact" -> new ProductCacheValueSerializer(1024);
+            case "typed-jackson" -> (RedisSerializer<Object>) new Jackson2JsonRedisSerializer<>(objectMapper, type.apply(objectMapper));
+            default -> throw new IllegalArgumentException("Unknown serializer " + serializer);
+        };
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() {
+        return productSerializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserializeProduct() {
+        return productSerializer.deserialize(productBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeList() {
+        return listSerializer.serialize(products);
+    }
+
+    @Benchmark
+    public Object deserializeList() {
+        return listSerializer.deserialize(listBytes);
+    }
+}
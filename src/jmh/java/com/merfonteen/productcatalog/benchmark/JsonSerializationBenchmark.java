@@ -0,0 +1,63 @@
+package com.merfonteen.productcatalog.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies as Spring MVC writes them: the mapper mirrors Boot's defaults (JSR-310 module, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private ProductResponseDto product;
+    private ProductPageResponseDto page;
+    private byte[] productJson;
+    private byte[] pageJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        product = BenchmarkData.productDto(1);
+        page = BenchmarkData.page(pageSize);
+        productJson = objectMapper.writeValueAsBytes(product);
+        pageJson = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writeProduct() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public ProductResponseDto readProduct() throws Exception {
+        return objectMapper.readValue(productJson, ProductResponseDto.class);
+    }
+
+    @Benchmark
+    public ProductPageResponseDto readPage() throws Exception {
+        return objectMapper.readValue(pageJson, ProductPageResponseDto.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.merfonteen.productcatalog.benchmark;
+
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.mapper.ProductMapper;
+import com.merfonteen.productcatalog.mapper.ProductMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    private int size;
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private Product product;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product(1);
+        products = BenchmarkData.products(size);
+    }
+
+    @Benchmark
+    public ProductResponseDto toDto() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> toDtos() {
+        return productMapper.toDtos(products);
+    }
+}
@@ -0,0 +1,99 @@
+package com.merfonteen.productcatalog.benchmark;
+
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.mapper.ProductMapperImpl;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.service.ProductService;
+import com.merfonteen.productcatalog.service.impl.ProductServiceImpl;
+import com.merfonteen.productcatalog.util.ProductCursor;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offset and keyset paging through {@link ProductServiceImpl} against an in-memory H2 catalog migrated
+ * with the application's Flyway scripts. Redis-backed collaborators are not involved in these paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    @Param({"0", "1000", "40000"})
+    private int page;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private ProductService productService;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:product_benchmark;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        new JdbcTemplate(dataSource).update("""
+                INSERT INTO products (id, name, description, price, category, stock, created_at, updated_at)
+                SELECT X + 100, 'Product ' || X, 'Description of product ' || X, MOD(X, 10000) / 100.0,
+                       'Category ' || MOD(X, 50), MOD(X, 500),
+                       DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NULL
+                FROM SYSTEM_RANGE(1, ?)
+                """, catalogSize);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Product.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        ProductRepository productRepository = new JpaRepositoryFactory(entityManager).getRepository(ProductRepository.class);
+        // Rate limiting, cache eviction and bulk cache access are not on the read paths measured here
+        productService = new ProductServiceImpl(new ProductMapperImpl(), productRepository, null, null, null, null, null, null);
+
+        if (page > 0) {
+            List<ProductResponseDto> previousPage = productService.getProducts(page - 1, PAGE_SIZE).getProducts();
+            ProductResponseDto last = previousPage.get(previousPage.size() - 1);
+            cursor = new ProductCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public ProductPageResponseDto getProducts() {
+        return productService.getProducts(page, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ProductPageResponseDto getProductsByCursor() {
+        return productService.getProductsByCursor(cursor, PAGE_SIZE, false);
+    }
+}
@@ -2,9 +2,13 @@ package com.merfonteen.productcatalog;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class ProductCatalogTestTaskApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(ProductCatalogTestTaskApplication.class, args);
@@ -0,0 +1,13 @@
+package com.merfonteen.productcatalog.cache;
+
+/**
+ * Broadcast over Redis pub/sub so that other nodes drop their local (L1) copy of an entry.
+ * A {@code null} key means the whole cache was cleared; with {@code prefix} set, every key starting
+ * with {@code key} was evicted.
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key, boolean prefix) {
+
+    public boolean isClear() {
+        return key == null;
+    }
+}
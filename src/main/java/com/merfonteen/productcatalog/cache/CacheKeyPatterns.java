@@ -0,0 +1,22 @@
+package com.merfonteen.productcatalog.cache;
+
+final class CacheKeyPatterns {
+
+    private CacheKeyPatterns() {
+    }
+
+    /**
+     * Redis glob pattern matching every key that starts with {@code prefix}, with glob metacharacters
+     * in the prefix itself escaped.
+     */
+    static String startingWith(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 2);
+        for (char c : prefix.toCharArray()) {
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('*').toString();
+    }
+}
@@ -0,0 +1,430 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Keeps cache misses from turning into a stampede on the database.
+ * <ul>
+ *     <li>Concurrent misses for the same key on this node share one in-flight load (single-flight).</li>
+ *     <li>Optionally, the loading node takes a short Redis lock; other nodes wait for the value to appear
+ *     instead of loading it too, and load it themselves only if the lock holder does not deliver in time.</li>
+ *     <li>Entries this node wrote are reloaded in the background once they are older than
+ *     {@code refreshAfterWrite}, while callers keep getting the cached value.</li>
+ * </ul>
+ * Only {@link #get(Object, Callable)} coalesces, which is what {@code @Cacheable(sync = true)} calls.
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+
+    private static final String LOCK_KEY_PREFIX = "lock::cache::";
+    private static final long LOCK_POLL_INTERVAL_MILLIS = 25;
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final Object SKIPPED = new Object();
+
+    private final Cache delegate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration lockTimeout;
+    private final Duration refreshAfterWrite;
+    private final Executor refreshExecutor;
+
+    private final ConcurrentMap<Object, InFlightLoad> inFlightLoads = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> refreshDeadlines;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder loadSuccessNanos = new LongAdder();
+    private final LongAdder loadFailureNanos = new LongAdder();
+
+    /**
+     * @param stringRedisTemplate used for the cross-node lock, or {@code null} to coalesce within this node only
+     * @param refreshAfterWrite   age after which a hit triggers a background reload, or {@code null} to disable
+     */
+    public CoalescingCache(Cache delegate,
+                           StringRedisTemplate stringRedisTemplate,
+                           Duration lockTimeout,
+                           Duration refreshAfterWrite,
+                           Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.lockTimeout = lockTimeout;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshDeadlines = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(refreshAfterWrite != null ? refreshAfterWrite.multipliedBy(2) : Duration.ofMinutes(1))
+                .build();
+    }
+
+    public static Cache unwrap(Cache cache) {
+        return cache instanceof CoalescingCache coalescingCache ? coalescingCache.delegate : cache;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Misses that joined a load already in flight instead of starting their own.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccessCount.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount.sum();
+    }
+
+    public double getLoadSuccessMillis() {
+        return loadSuccessNanos.sum() / 1_000_000.0;
+    }
+
+    public double getLoadFailureMillis() {
+        return loadFailureNanos.sum() / 1_000_000.0;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            hitCount.increment();
+            refreshIfDue(key, valueLoader);
+            return (T) cached.get();
+        }
+        missCount.increment();
+
+        try {
+            return (T) load(key, valueLoader, false).join();
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        scheduleRefresh(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        discardPendingLoads(key);
+        delegate.evict(key);
+    }
+
+    /**
+     * Like {@link #evict(Object)} for in-flight loads and refresh deadlines only, for callers that remove the
+     * entry from the underlying cache themselves. Call it before removing the entry: a load that started earlier
+     * may have read the old state and must not write it back.
+     */
+    public void discardPendingLoads(Object key) {
+        InFlightLoad load = inFlightLoads.remove(key);
+        if (load != null) {
+            load.invalidated = true;
+        }
+        refreshDeadlines.invalidate(key);
+    }
+
+    /**
+     * {@link #discardPendingLoads(Object)} for every key starting with {@code keyPrefix}.
+     */
+    public void discardPendingLoadsByPrefix(String keyPrefix) {
+        discardPendingLoadsWhere(key -> key.startsWith(keyPrefix));
+    }
+
+    /**
+     * Matches keys by their string form, which is all an invalidation broadcast carries.
+     */
+    void discardPendingLoadsWhere(Predicate<String> keyMatches) {
+        inFlightLoads.forEach((key, load) -> {
+            if (keyMatches.test(String.valueOf(key)) && inFlightLoads.remove(key, load)) {
+                load.invalidated = true;
+            }
+        });
+        refreshDeadlines.asMap().keySet().removeIf(key -> keyMatches.test(String.valueOf(key)));
+    }
+
+    @Override
+    public void clear() {
+        inFlightLoads.values().forEach(load -> load.invalidated = true);
+        inFlightLoads.clear();
+        refreshDeadlines.invalidateAll();
+        delegate.clear();
+    }
+
+    /**
+     * Registers a multi-key load that fills the cache without going through {@link #get(Object, Callable)}, such as
+     * a batch backfill, so evictions during the load reach it like they reach single-key loads. Keys that already
+     * have a load in flight are left out; that load caches them. A single-key load that starts meanwhile takes
+     * its key over.
+     */
+    public BulkLoad beginBulkLoad(Collection<?> keys) {
+        Map<Object, InFlightLoad> loads = new HashMap<>();
+        for (Object key : keys) {
+            InFlightLoad load = new InFlightLoad(true);
+            if (inFlightLoads.putIfAbsent(key, load) == null) {
+                loads.put(key, load);
+            }
+        }
+        return new BulkLoad(loads);
+    }
+
+    private CompletableFuture<Object> load(Object key, Callable<?> valueLoader, boolean refresh) {
+        InFlightLoad newLoad = new InFlightLoad(false);
+        InFlightLoad inFlight = inFlightLoads.putIfAbsent(key, newLoad);
+        while (inFlight != null && inFlight.bulk) {
+            // A bulk load only holds the key to hear about evictions and delivers nothing to wait for
+            if (inFlightLoads.replace(key, inFlight, newLoad)) {
+                inFlight.invalidated = true;
+                inFlight = null;
+            } else {
+                inFlight = inFlightLoads.putIfAbsent(key, newLoad);
+            }
+        }
+        if (inFlight != null) {
+            coalescedCount.increment();
+            return inFlight.result;
+        }
+        if (refresh) {
+            refreshCount.increment();
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            Object value = loadAcrossNodes(key, valueLoader, refresh, newLoad);
+            loadSuccessCount.increment();
+            loadSuccessNanos.add(System.nanoTime() - startedAt);
+            if (value == SKIPPED) {
+                ValueWrapper current = delegate.get(key);
+                value = current != null ? current.get() : valueLoader.call();
+            }
+            newLoad.result.complete(value);
+        } catch (Throwable ex) {
+            loadFailureCount.increment();
+            loadFailureNanos.add(System.nanoTime() - startedAt);
+            newLoad.result.completeExceptionally(ex);
+        } finally {
+            inFlightLoads.remove(key, newLoad);
+        }
+        return newLoad.result;
+    }
+
+    private Object loadAcrossNodes(Object key, Callable<?> valueLoader, boolean refresh, InFlightLoad load) throws Exception {
+        if (stringRedisTemplate == null) {
+            return loadAndWriteBack(key, valueLoader, load);
+        }
+
+        String lockKey = LOCK_KEY_PREFIX + getName() + "::" + key;
+        String token = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + lockTimeout.toNanos();
+        Boolean acquired = tryLock(lockKey, token);
+        while (Boolean.FALSE.equals(acquired)) {
+            if (refresh) {
+                // Another node is already reloading this entry
+                return SKIPPED;
+            }
+            ValueWrapper loadedElsewhere = awaitValue(key, lockKey, deadline);
+            if (loadedElsewhere != null) {
+                return loadedElsewhere.get();
+            }
+            if (System.nanoTime() >= deadline) {
+                // The lock holder did not deliver in time
+                break;
+            }
+            // The lock holder gave up without a value, e.g. its load failed or found nothing
+            acquired = tryLock(lockKey, token);
+        }
+        try {
+            // Written back before the lock is released, so waiters find the value instead of loading it again
+            return loadAndWriteBack(key, valueLoader, load);
+        } finally {
+            if (Boolean.TRUE.equals(acquired)) {
+                releaseLock(lockKey, token);
+            }
+        }
+    }
+
+    private Object loadAndWriteBack(Object key, Callable<?> valueLoader, InFlightLoad load) throws Exception {
+        Object value = valueLoader.call();
+        if (!load.invalidated) {
+            put(key, value);
+            // An eviction that raced with the put has already removed the entry or is about to; either way it wins
+            if (load.invalidated) {
+                refreshDeadlines.invalidate(key);
+                delegate.evict(key);
+            }
+        }
+        return value;
+    }
+
+    private Boolean tryLock(String lockKey, String token) {
+        try {
+            return stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTimeout);
+        } catch (RuntimeException ex) {
+            log.warn("Could not take cache load lock '{}', loading without it: {}", lockKey, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void releaseLock(String lockKey, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException ex) {
+            log.warn("Could not release cache load lock '{}', it expires on its own: {}", lockKey, ex.getMessage());
+        }
+    }
+
+    /**
+     * Polls for the value another node is loading. Returns {@code null} once the deadline passes or as soon as
+     * the lock is gone without a value, so callers do not sit out the full timeout for a load that failed.
+     */
+    private ValueWrapper awaitValue(Object key, String lockKey, long deadline) throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(LOCK_POLL_INTERVAL_MILLIS);
+            ValueWrapper value = delegate.get(key);
+            if (value != null) {
+                return value;
+            }
+            if (!isLocked(lockKey)) {
+                // The holder writes back before releasing, so check once more for a value that just landed
+                return delegate.get(key);
+            }
+        }
+        return null;
+    }
+
+    private boolean isLocked(String lockKey) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(lockKey));
+        } catch (RuntimeException ex) {
+            log.warn("Could not check cache load lock '{}', loading without it: {}", lockKey, ex.getMessage());
+            return false;
+        }
+    }
+
+    private void scheduleRefresh(Object key) {
+        if (refreshAfterWrite != null) {
+            refreshDeadlines.put(key, System.nanoTime() + refreshAfterWrite.toNanos());
+        }
+    }
+
+    private void refreshIfDue(Object key, Callable<?> valueLoader) {
+        Long deadline = refreshDeadlines.getIfPresent(key);
+        if (deadline == null || System.nanoTime() < deadline || inFlightLoads.containsKey(key)) {
+            return;
+        }
+        // Only the first caller past the deadline triggers the reload
+        if (!refreshDeadlines.asMap().remove(key, deadline)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> load(key, valueLoader, true));
+        } catch (RejectedExecutionException ex) {
+            log.debug("Skipping refresh-ahead of '{}' in cache '{}': executor saturated", key, getName());
+        }
+    }
+
+    private static final class InFlightLoad {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final boolean bulk;
+        // Set when the key is evicted while loading; the loaded value is then returned but not cached
+        private volatile boolean invalidated;
+
+        private InFlightLoad(boolean bulk) {
+            this.bulk = bulk;
+        }
+    }
+
+    /**
+     * Handle of {@link #beginBulkLoad(Collection)}; close it once the loaded values are written back.
+     */
+    public final class BulkLoad implements AutoCloseable {
+
+        private final Map<Object, InFlightLoad> loads;
+
+        private BulkLoad(Map<Object, InFlightLoad> loads) {
+            this.loads = loads;
+        }
+
+        /**
+         * Whether a value loaded for {@code key} may still be cached: no eviction has happened since the load began.
+         */
+        public boolean isCurrent(Object key) {
+            InFlightLoad load = loads.get(key);
+            return load != null && !load.invalidated;
+        }
+
+        @Override
+        public void close() {
+            loads.forEach(inFlightLoads::remove);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.merfonteen.productcatalog.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spreads expiry of entries written together (warm-up, bulk loads, a burst of misses) over
+ * {@code ttl ± ttl * jitter} so they do not all expire, and get reloaded, at the same moment.
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+    private final long ttlMillis;
+    private final long spreadMillis;
+
+    public JitteredTtlFunction(Duration ttl, double jitter) {
+        this.ttlMillis = ttl.toMillis();
+        this.spreadMillis = (long) (ttlMillis * jitter);
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (spreadMillis <= 0) {
+            return Duration.ofMillis(ttlMillis);
+        }
+        return Duration.ofMillis(ttlMillis + ThreadLocalRandom.current().nextLong(-spreadMillis, spreadMillis + 1));
+    }
+}
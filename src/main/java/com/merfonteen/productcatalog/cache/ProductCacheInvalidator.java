@@ -0,0 +1,81 @@
+package com.merfonteen.productcatalog.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Component
+public class ProductCacheInvalidator {
+
+    private static final String PRODUCTS_BY_CATEGORY_CACHE = "products-by-category";
+    private static final String CATEGORY_KEY_SEPARATOR = "|";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Evicts every cached page of the given categories once the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state.
+     */
+    public void evictCategories(String... categories) {
+        Set<String> categoriesToEvict = Arrays.stream(categories)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (categoriesToEvict.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvictCategories(categoriesToEvict);
+                }
+            });
+        } else {
+            doEvictCategories(categoriesToEvict);
+        }
+    }
+
+    private void doEvictCategories(Set<String> categories) {
+        Cache cache = cacheManager.getCache(PRODUCTS_BY_CATEGORY_CACHE);
+        if (cache == null) {
+            return;
+        }
+        Cache target = CoalescingCache.unwrap(cache);
+        for (String category : categories) {
+            String keyPrefix = categoryKeyPrefix(category);
+            if (cache instanceof CoalescingCache coalescingCache) {
+                // A page load that read the old rows must not write its result back after the eviction
+                coalescingCache.discardPendingLoadsByPrefix(keyPrefix);
+            }
+            if (target instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.evictByPrefix(keyPrefix);
+            } else if (target instanceof RedisCache redisCache) {
+                redisCache.clear(CacheKeyPatterns.startingWith(keyPrefix));
+                if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+                    // Lets the other nodes discard their in-flight loads of these pages too
+                    twoLevelCacheManager.publishInvalidation(PRODUCTS_BY_CATEGORY_CACHE, keyPrefix, true);
+                }
+            } else {
+                target.clear();
+            }
+        }
+    }
+
+    /**
+     * Keys of the "products-by-category" cache start with this prefix, followed by the page and filter segment.
+     */
+    public static String categoryKeyPrefix(String category) {
+        return category + CATEGORY_KEY_SEPARATOR;
+    }
+}
@@ -0,0 +1,346 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary encoding for cached product values. Every entry starts with a fixed header:
+ * <pre>
+ *   magic (1 byte) | schema version (1 byte) | flags (1 byte) | type tag (1 byte) | payload
+ * </pre>
+ * Products, product lists and product pages get a field-by-field encoding with a presence bitmask instead of class
+ * descriptors, anything else falls back to JDK serialization. Payloads above the compression threshold
+ * are deflated when that actually makes them smaller.
+ * <p>
+ * Entries with an unknown magic or schema version deserialize to {@code null}, which caches treat as a
+ * miss, so values written by an older deploy are simply reloaded and overwritten.
+ */
+public class ProductCacheValueSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xCA;
+    static final byte SCHEMA_VERSION = 1;
+
+    private static final byte FLAG_DEFLATED = 0x01;
+
+    private static final byte TYPE_SERIALIZABLE = 0;
+    private static final byte TYPE_PRODUCT = 1;
+    private static final byte TYPE_PRODUCT_LIST = 2;
+    private static final byte TYPE_NULL_VALUE = 3;
+    private static final byte TYPE_PRODUCT_PAGE = 4;
+
+    private static final int HEADER_LENGTH = 4;
+
+    private final int compressionThreshold;
+    private final JdkSerializationRedisSerializer fallbackSerializer = new JdkSerializationRedisSerializer();
+
+    public ProductCacheValueSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        byte type;
+        byte[] payload;
+        if (value instanceof ProductResponseDto product) {
+            type = TYPE_PRODUCT;
+            payload = encode(out -> writeProduct(out, product));
+        } else if (value instanceof NullValue) {
+            type = TYPE_NULL_VALUE;
+            payload = new byte[0];
+        } else if (isProductList(value)) {
+            List<?> products = (List<?>) value;
+            type = TYPE_PRODUCT_LIST;
+            payload = encode(out -> writeProducts(out, products));
+        } else if (value instanceof ProductPageResponseDto page
+                && (page.getProducts() == null || isProductList(page.getProducts()))) {
+            type = TYPE_PRODUCT_PAGE;
+            payload = encode(out -> writePage(out, page));
+        } else {
+            type = TYPE_SERIALIZABLE;
+            payload = fallbackSerializer.serialize(value);
+        }
+
+        byte flags = 0;
+        if (payload.length > compressionThreshold) {
+            byte[] deflated = deflate(payload);
+            if (deflated.length < payload.length) {
+                payload = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+        bytes[0] = MAGIC;
+        bytes[1] = SCHEMA_VERSION;
+        bytes[2] = flags;
+        bytes[3] = type;
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != MAGIC || bytes[1] != SCHEMA_VERSION) {
+            return null;
+        }
+
+        InputStream payload = new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        if ((bytes[2] & FLAG_DEFLATED) != 0) {
+            payload = new InflaterInputStream(payload);
+        }
+
+        try (DataInputStream in = new DataInputStream(payload)) {
+            return switch (bytes[3]) {
+                case TYPE_PRODUCT -> readProduct(in);
+                case TYPE_PRODUCT_LIST -> readProducts(in);
+                case TYPE_PRODUCT_PAGE -> readPage(in);
+                case TYPE_NULL_VALUE -> NullValue.INSTANCE;
+                case TYPE_SERIALIZABLE -> fallbackSerializer.deserialize(in.readAllBytes());
+                default -> null;
+            };
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot deserialize cached product value", ex);
+        }
+    }
+
+    private static boolean isProductList(Object value) {
+        return value instanceof List<?> list && list.stream().allMatch(ProductResponseDto.class::isInstance);
+    }
+
+    private static void writePage(DataOutputStream out, ProductPageResponseDto page) throws IOException {
+        int presence = presenceBit(page.getProducts(), 0)
+                | presenceBit(page.getCurrentPage(), 1)
+                | presenceBit(page.getTotalPages(), 2)
+                | presenceBit(page.getTotalElements(), 3)
+                | presenceBit(page.getIsLastPage(), 4)
+                | presenceBit(page.getNextCursor(), 5);
+        out.writeByte(presence);
+
+        if (page.getProducts() != null) {
+            writeProducts(out, page.getProducts());
+        }
+        if (page.getCurrentPage() != null) {
+            writeVarInt(out, page.getCurrentPage());
+        }
+        if (page.getTotalPages() != null) {
+            writeVarInt(out, page.getTotalPages());
+        }
+        if (page.getTotalElements() != null) {
+            writeVarLong(out, page.getTotalElements());
+        }
+        if (page.getIsLastPage() != null) {
+            out.writeBoolean(page.getIsLastPage());
+        }
+        if (page.getNextCursor() != null) {
+            out.writeUTF(page.getNextCursor());
+        }
+    }
+
+    private static ProductPageResponseDto readPage(DataInputStream in) throws IOException {
+        int presence = in.readUnsignedByte();
+        ProductPageResponseDto page = new ProductPageResponseDto();
+        if (isPresent(presence, 0)) {
+            page.setProducts(readProducts(in));
+        }
+        if (isPresent(presence, 1)) {
+            page.setCurrentPage(readVarInt(in));
+        }
+        if (isPresent(presence, 2)) {
+            page.setTotalPages(readVarInt(in));
+        }
+        if (isPresent(presence, 3)) {
+            page.setTotalElements(readVarLong(in));
+        }
+        if (isPresent(presence, 4)) {
+            page.setIsLastPage(in.readBoolean());
+        }
+        if (isPresent(presence, 5)) {
+            page.setNextCursor(in.readUTF());
+        }
+        return page;
+    }
+
+    private static void writeProducts(DataOutputStream out, List<?> products) throws IOException {
+        writeVarInt(out, products.size());
+        for (Object product : products) {
+            writeProduct(out, (ProductResponseDto) product);
+        }
+    }
+
+    private static List<ProductResponseDto> readProducts(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        List<ProductResponseDto> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(readProduct(in));
+        }
+        return products;
+    }
+
+    private static void writeProduct(DataOutputStream out, ProductResponseDto product) throws IOException {
+        int presence = presenceBit(product.getId(), 0)
+                | presenceBit(product.getName(), 1)
+                | presenceBit(product.getDescription(), 2)
+                | presenceBit(product.getPrice(), 3)
+                | presenceBit(product.getCategory(), 4)
+                | presenceBit(product.getStock(), 5)
+                | presenceBit(product.getCreatedAt(), 6)
+                | presenceBit(product.getUpdatedAt(), 7);
+        out.writeByte(presence);
+
+        if (product.getId() != null) {
+            writeVarLong(out, product.getId());
+        }
+        if (product.getName() != null) {
+            out.writeUTF(product.getName());
+        }
+        if (product.getDescription() != null) {
+            out.writeUTF(product.getDescription());
+        }
+        if (product.getPrice() != null) {
+            writeVarInt(out, product.getPrice().scale());
+            byte[] unscaled = product.getPrice().unscaledValue().toByteArray();
+            writeVarInt(out, unscaled.length);
+            out.write(unscaled);
+        }
+        if (product.getCategory() != null) {
+            out.writeUTF(product.getCategory());
+        }
+        if (product.getStock() != null) {
+            writeVarInt(out, product.getStock());
+        }
+        if (product.getCreatedAt() != null) {
+            writeDateTime(out, product.getCreatedAt());
+        }
+        if (product.getUpdatedAt() != null) {
+            writeDateTime(out, product.getUpdatedAt());
+        }
+    }
+
+    private static ProductResponseDto readProduct(DataInputStream in) throws IOException {
+        int presence = in.readUnsignedByte();
+        ProductResponseDto product = new ProductResponseDto();
+        if (isPresent(presence, 0)) {
+            product.setId(readVarLong(in));
+        }
+        if (isPresent(presence, 1)) {
+            product.setName(in.readUTF());
+        }
+        if (isPresent(presence, 2)) {
+            product.setDescription(in.readUTF());
+        }
+        if (isPresent(presence, 3)) {
+            int scale = readVarInt(in);
+            byte[] unscaled = in.readNBytes(readVarInt(in));
+            product.setPrice(new BigDecimal(new BigInteger(unscaled), scale));
+        }
+        if (isPresent(presence, 4)) {
+            product.setCategory(in.readUTF());
+        }
+        if (isPresent(presence, 5)) {
+            product.setStock(readVarInt(in));
+        }
+        if (isPresent(presence, 6)) {
+            product.setCreatedAt(readDateTime(in));
+        }
+        if (isPresent(presence, 7)) {
+            product.setUpdatedAt(readDateTime(in));
+        }
+        return product;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        writeVarLong(out, dateTime.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(out, dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        long epochSecond = readVarLong(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, readVarInt(in), ZoneOffset.UTC);
+    }
+
+    private static int presenceBit(Object field, int bit) {
+        return field != null ? 1 << bit : 0;
+    }
+
+    private static boolean isPresent(int presence, int bit) {
+        return (presence & (1 << bit)) != 0;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    // Zig-zag LEB128, so small ids, stocks and scales take a single byte
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(payload.length / 2);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer)) {
+            out.write(payload);
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot compress cached value", ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] encode(PayloadWriter writer) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            writer.write(out);
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot serialize cached product value", ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,64 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import org.springframework.http.ETag;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Strong ETags for product responses. A product's tag is derived from its id and last modification time,
+ * which every write path bumps. It is always computed from the response being served, so a conditional GET
+ * is confirmed against the cached product and can never vouch for a body other than the one it describes.
+ */
+public final class ProductEtags {
+
+    private ProductEtags() {
+    }
+
+    public static String of(ProductResponseDto product) {
+        return product.getId() + "-" + Long.toString(modificationStamp(product), 36);
+    }
+
+    /**
+     * Collection-level ETag: changes whenever any member or the paging metadata changes.
+     */
+    public static String of(ProductPageResponseDto page) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getCurrentPage()).append('|')
+                .append(page.getTotalPages()).append('|')
+                .append(page.getTotalElements()).append('|')
+                .append(page.getIsLastPage()).append('|')
+                .append(page.getNextCursor());
+        if (page.getProducts() != null) {
+            for (ProductResponseDto product : page.getProducts()) {
+                state.append('|').append(of(product));
+            }
+        }
+        return "p-" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value matches {@code etag}, using the weak comparison
+     * RFC 9110 prescribes for that header.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+    }
+
+    private static long modificationStamp(ProductResponseDto product) {
+        LocalDateTime modifiedAt = product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+        if (modifiedAt == null) {
+            return 0;
+        }
+        return modifiedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + modifiedAt.getNano() / 1_000;
+    }
+}
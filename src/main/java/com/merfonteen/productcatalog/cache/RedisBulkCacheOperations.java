@@ -0,0 +1,210 @@
+package com.merfonteen.productcatalog.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Multi-key reads and writes against Spring caches backed by {@link RedisCache}, using one MGET or one
+ * pipeline per call instead of a round trip per key. Keys and values are encoded exactly like the cache
+ * itself would, and local (L1) tiers are consulted and filled along the way.
+ */
+@RequiredArgsConstructor
+@Component
+public class RedisBulkCacheOperations {
+
+    private final RedisCacheManager redisCacheManager;
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public Map<Object, Object> getAll(String cacheName, Collection<?> keys) {
+        Map<Object, Object> found = new LinkedHashMap<>();
+        TwoLevelCache localTier = localTier(cacheName);
+
+        List<Object> remoteKeys = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            Cache.ValueWrapper localValue = localTier != null ? localTier.getLocal(key) : null;
+            if (localValue != null && localValue.get() != null) {
+                found.put(key, localValue.get());
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        RedisCacheConfiguration configuration = configuration(cacheName);
+        byte[][] rawKeys = remoteKeys.stream()
+                .map(key -> serializeKey(configuration, cacheName, key))
+                .toArray(byte[][]::new);
+        List<byte[]> rawValues = stringRedisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        if (rawValues == null) {
+            return found;
+        }
+
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            Object value = rawValue == null ? null : configuration.getValueSerializationPair().read(ByteBuffer.wrap(rawValue));
+            if (value == null || value instanceof NullValue) {
+                continue;
+            }
+            found.put(remoteKeys.get(i), value);
+            if (localTier != null) {
+                localTier.putLocal(remoteKeys.get(i), value);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Loads the entries for {@code keys} and writes them back with {@link #putAll}, guarded like a single-key load
+     * of the cache: a key evicted while {@code loader} runs is returned but not cached, and one evicted while the
+     * write is under way is evicted again.
+     */
+    public <K, V> Map<K, V> loadAll(String cacheName, Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        CoalescingCache.BulkLoad bulkLoad = cacheManager.getCache(cacheName) instanceof CoalescingCache coalescingCache
+                ? coalescingCache.beginBulkLoad(keys)
+                : null;
+        try {
+            Map<K, V> loaded = loader.apply(keys);
+            Map<K, V> current = new LinkedHashMap<>();
+            loaded.forEach((key, value) -> {
+                if (bulkLoad == null || bulkLoad.isCurrent(key)) {
+                    current.put(key, value);
+                }
+            });
+            putAll(cacheName, current);
+
+            if (bulkLoad != null) {
+                List<K> raced = current.keySet().stream()
+                        .filter(key -> !bulkLoad.isCurrent(key))
+                        .toList();
+                if (!raced.isEmpty()) {
+                    evictAll(Map.of(cacheName, raced));
+                }
+            }
+            return loaded;
+        } finally {
+            if (bulkLoad != null) {
+                bulkLoad.close();
+            }
+        }
+    }
+
+    public void putAll(String cacheName, Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        RedisCacheConfiguration configuration = configuration(cacheName);
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((key, value) -> {
+                Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+                connection.stringCommands().set(
+                        serializeKey(configuration, cacheName, key),
+                        serializeValue(configuration, value),
+                        ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                        RedisStringCommands.SetOption.upsert());
+            });
+            return null;
+        });
+
+        TwoLevelCache localTier = localTier(cacheName);
+        if (localTier != null) {
+            entries.forEach(localTier::putLocal);
+        }
+    }
+
+    /**
+     * Evicts {@code keys} from every listed cache in one pipeline: a DEL per cache plus, for two-level caches,
+     * one invalidation message per key so other nodes drop their local copies too.
+     */
+    public void evictAll(Map<String, ? extends Collection<?>> keysByCache) {
+        Map<String, RedisCacheConfiguration> configurations = new LinkedHashMap<>();
+        keysByCache.forEach((cacheName, keys) -> {
+            if (keys.isEmpty()) {
+                return;
+            }
+            configurations.put(cacheName, configuration(cacheName));
+            Cache cache = cacheManager.getCache(cacheName);
+            TwoLevelCache localTier = localTier(cacheName);
+            for (Object key : keys) {
+                if (cache instanceof CoalescingCache coalescingCache) {
+                    coalescingCache.discardPendingLoads(key);
+                }
+                if (localTier != null) {
+                    localTier.evictLocal(TwoLevelCache.toLocalKey(key));
+                }
+            }
+        });
+        if (configurations.isEmpty()) {
+            return;
+        }
+
+        byte[] channel = TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            configurations.forEach((cacheName, configuration) -> {
+                Collection<?> keys = keysByCache.get(cacheName);
+                connection.keyCommands().del(keys.stream()
+                        .map(key -> serializeKey(configuration, cacheName, key))
+                        .toArray(byte[][]::new));
+                if (localTier(cacheName) != null && cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+                    for (Object key : keys) {
+                        String payload = twoLevelCacheManager.invalidationPayload(cacheName, TwoLevelCache.toLocalKey(key), false);
+                        connection.publish(channel, payload.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            });
+            return null;
+        });
+    }
+
+    private TwoLevelCache localTier(String cacheName) {
+        return CoalescingCache.unwrap(cacheManager.getCache(cacheName)) instanceof TwoLevelCache twoLevelCache ? twoLevelCache : null;
+    }
+
+    private RedisCacheConfiguration configuration(String cacheName) {
+        if (!(redisCacheManager.getCache(cacheName) instanceof RedisCache redisCache)) {
+            throw new IllegalArgumentException("No Redis cache named " + cacheName);
+        }
+        return redisCache.getCacheConfiguration();
+    }
+
+    private static byte[] serializeKey(RedisCacheConfiguration configuration, String cacheName, Object key) {
+        String cacheKey = configuration.usePrefix()
+                ? configuration.getKeyPrefixFor(cacheName) + key
+                : String.valueOf(key);
+        return toBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+
+    private static byte[] serializeValue(RedisCacheConfiguration configuration, Object value) {
+        return toBytes(configuration.getValueSerializationPair().write(value));
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
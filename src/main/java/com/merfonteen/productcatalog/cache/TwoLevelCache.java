@@ -0,0 +1,170 @@
+package com.merfonteen.productcatalog.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process Caffeine cache (L1) in front of a shared Redis cache (L2).
+ * Evictions are applied to both tiers and broadcast so that other nodes drop their L1 copy too.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+    private final Cache remoteCache;
+    private final InvalidationPublisher invalidationPublisher;
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache,
+                         Cache remoteCache,
+                         InvalidationPublisher invalidationPublisher) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        ValueWrapper localValue = localCache.getIfPresent(localKey);
+        if (localValue != null) {
+            return localValue;
+        }
+
+        ValueWrapper remoteValue = remoteCache.get(key);
+        if (remoteValue == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        localCache.put(localKey, new SimpleValueWrapper(remoteValue.get()));
+        return remoteValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        localCache.put(toLocalKey(key), new SimpleValueWrapper(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.publish(name, localKey, false);
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.publish(name, null, false);
+    }
+
+    /**
+     * Evicts every entry whose key starts with {@code prefix}. A Redis remote tier is cleared by key pattern,
+     * any other remote tier entirely.
+     */
+    public void evictByPrefix(String prefix) {
+        if (remoteCache instanceof RedisCache redisCache) {
+            redisCache.clear(CacheKeyPatterns.startingWith(prefix));
+        } else {
+            remoteCache.clear();
+        }
+        evictLocalByPrefix(prefix);
+        invalidationPublisher.publish(name, prefix, true);
+    }
+
+    public ValueWrapper getLocal(Object key) {
+        return localCache.getIfPresent(toLocalKey(key));
+    }
+
+    public void putLocal(Object key, Object value) {
+        localCache.put(toLocalKey(key), new SimpleValueWrapper(value));
+    }
+
+    public void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    public void evictLocalByPrefix(String prefix) {
+        localCache.asMap().keySet().removeIf(localKey -> localKey.startsWith(prefix));
+    }
+
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> getLocalCache() {
+        return localCache;
+    }
+
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMissCount() {
+        return remoteMisses.sum();
+    }
+
+    static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        void publish(String cacheName, String key, boolean prefix);
+    }
+}
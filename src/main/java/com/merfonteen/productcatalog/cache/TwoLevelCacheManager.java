@@ -0,0 +1,140 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Set<String> localCacheNames;
+    private final long localMaximumSize;
+    private final Duration localExpireAfterWrite;
+    private final UnaryOperator<Cache> cacheDecorator;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                StringRedisTemplate stringRedisTemplate,
+                                ObjectMapper objectMapper,
+                                Set<String> localCacheNames,
+                                long localMaximumSize,
+                                Duration localExpireAfterWrite,
+                                UnaryOperator<Cache> cacheDecorator) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCacheNames = Set.copyOf(localCacheNames);
+        this.localMaximumSize = localMaximumSize;
+        this.localExpireAfterWrite = localExpireAfterWrite;
+        this.cacheDecorator = cacheDecorator;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> cacheDecorator.apply(localCacheNames.contains(cacheName)
+                ? createTwoLevelCache(cacheName, remoteCache)
+                : remoteCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    public Set<String> getLocalCacheNames() {
+        return localCacheNames;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (Exception ex) {
+            log.warn("Ignoring malformed cache invalidation message: {}", ex.getMessage());
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        Cache target = caches.get(invalidation.cacheName());
+        if (target instanceof CoalescingCache coalescingCache) {
+            // Loads here that started before the eviction may have read the old state and must not write it back
+            if (invalidation.isClear()) {
+                coalescingCache.discardPendingLoadsWhere(key -> true);
+            } else if (invalidation.prefix()) {
+                coalescingCache.discardPendingLoadsByPrefix(invalidation.key());
+            } else {
+                coalescingCache.discardPendingLoadsWhere(invalidation.key()::equals);
+            }
+        }
+        if (!(CoalescingCache.unwrap(target) instanceof TwoLevelCache cache)) {
+            return;
+        }
+
+        if (invalidation.isClear()) {
+            cache.clearLocal();
+        } else if (invalidation.prefix()) {
+            cache.evictLocalByPrefix(invalidation.key());
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private TwoLevelCache createTwoLevelCache(String name, Cache remoteCache) {
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localExpireAfterWrite)
+                .recordStats()
+                .build();
+        return new TwoLevelCache(name, localCache, remoteCache, this::publishInvalidation);
+    }
+
+    String invalidationPayload(String cacheName, String key, boolean prefix) {
+        try {
+            return objectMapper.writeValueAsString(new CacheInvalidationMessage(nodeId, cacheName, key, prefix));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize cache invalidation message", ex);
+        }
+    }
+
+    void publishInvalidation(String cacheName, String key, boolean prefix) {
+        String payload = invalidationPayload(cacheName, key, prefix);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, payload);
+        } catch (RuntimeException ex) {
+            // The local expiry bounds how long other nodes can serve the stale L1 copy.
+            log.warn("Could not broadcast invalidation of '{}' in cache '{}': {}", key, cacheName, ex.getMessage());
+        }
+    }
+}
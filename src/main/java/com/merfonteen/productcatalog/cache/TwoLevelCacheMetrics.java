@@ -0,0 +1,100 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public class TwoLevelCacheMetrics implements MeterBinder {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CoalescingCache coalescingCache) {
+                bindLoads(registry, coalescingCache);
+            }
+            if (CoalescingCache.unwrap(cache) instanceof TwoLevelCache twoLevelCache) {
+                bindLocalTier(registry, twoLevelCache);
+                bindRemoteTier(registry, twoLevelCache);
+            }
+        }
+    }
+
+    private void bindLoads(MeterRegistry registry, CoalescingCache cache) {
+        String name = cache.getName();
+
+        FunctionCounter.builder("cache.requests", cache, CoalescingCache::getHitCount)
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.requests", cache, CoalescingCache::getMissCount)
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.loads.coalesced", cache, CoalescingCache::getCoalescedCount)
+                .tags("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.refreshes", cache, CoalescingCache::getRefreshCount)
+                .tags("cache", name)
+                .register(registry);
+        FunctionTimer.builder("cache.loads", cache, CoalescingCache::getLoadSuccessCount,
+                        CoalescingCache::getLoadSuccessMillis, TimeUnit.MILLISECONDS)
+                .tags("cache", name, "result", "success")
+                .register(registry);
+        FunctionTimer.builder("cache.loads", cache, CoalescingCache::getLoadFailureCount,
+                        CoalescingCache::getLoadFailureMillis, TimeUnit.MILLISECONDS)
+                .tags("cache", name, "result", "failure")
+                .register(registry);
+    }
+
+    private void bindLocalTier(MeterRegistry registry, TwoLevelCache cache) {
+        var localCache = cache.getLocalCache();
+        String name = cache.getName();
+
+        FunctionCounter.builder("cache.tier.gets", localCache, c -> c.stats().hitCount())
+                .tags("cache", name, "tier", "l1", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.gets", localCache, c -> c.stats().missCount())
+                .tags("cache", name, "tier", "l1", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.evictions", localCache, c -> c.stats().evictionCount())
+                .tags("cache", name, "tier", "l1")
+                .register(registry);
+        Gauge.builder("cache.tier.hit.ratio", localCache, c -> hitRatio(c.stats()))
+                .tags("cache", name, "tier", "l1")
+                .register(registry);
+        Gauge.builder("cache.tier.size", localCache, c -> c.estimatedSize())
+                .tags("cache", name, "tier", "l1")
+                .register(registry);
+    }
+
+    private void bindRemoteTier(MeterRegistry registry, TwoLevelCache cache) {
+        String name = cache.getName();
+
+        FunctionCounter.builder("cache.tier.gets", cache, TwoLevelCache::getRemoteHitCount)
+                .tags("cache", name, "tier", "l2", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.gets", cache, TwoLevelCache::getRemoteMissCount)
+                .tags("cache", name, "tier", "l2", "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.tier.hit.ratio", cache, c -> {
+                    long hits = c.getRemoteHitCount();
+                    long total = hits + c.getRemoteMissCount();
+                    return total == 0 ? 0.0 : (double) hits / total;
+                })
+                .tags("cache", name, "tier", "l2")
+                .register(registry);
+    }
+
+    private static double hitRatio(CacheStats stats) {
+        return stats.requestCount() == 0 ? 0.0 : stats.hitRate();
+    }
+}
@@ -0,0 +1,23 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "catalog.warmup")
+public class CacheWarmupProperties {
+
+    private boolean enabled = true;
+    private boolean trackingEnabled = true;
+    private int products = 1000;
+    private int categoryPages = 200;
+    private int batchSize = 100;
+    private int concurrency = 4;
+    private Duration timeout = Duration.ofSeconds(60);
+    private Duration flushInterval = Duration.ofSeconds(10);
+    private Duration decayInterval = Duration.ofHours(1);
+    private int maxTrackedKeys = 10_000;
+    private int maxRankedKeys = 10_000;
+}
@@ -0,0 +1,80 @@
+package com.merfonteen.productcatalog.config;
+
+import com.merfonteen.productcatalog.jdbc.ReadYourWritesTracker;
+import com.merfonteen.productcatalog.jdbc.ReplicaRoutingDataSource;
+import com.merfonteen.productcatalog.jdbc.SqlStatementListener;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Declares the DataSource explicitly. The pool is wrapped in a datasource-proxy that times every statement
+ * for {@link SqlStatementListener}. With {@code catalog.replica.enabled} a second pool for the replica sits
+ * next to it, and read-only transactions are routed there by {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+public class JdbcConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "catalog.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("catalog.replica.datasource")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 @Qualifier("replicaDataSourceProperties") ObjectProvider<DataSourceProperties> replicaDataSourceProperties,
+                                 ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment,
+                                 SqlStatementListener sqlStatementListener) {
+        HikariDataSource primary = pool(dataSourceProperties, "spring.datasource.hikari", environment);
+        DataSource target = primary;
+
+        DataSourceProperties replicaProperties = replicaDataSourceProperties.getIfAvailable();
+        if (replicaProperties != null) {
+            HikariDataSource replica = pool(replicaProperties, "catalog.replica.datasource.hikari", environment);
+            // Boot only instruments the pool it finds behind the DataSource bean, which is the primary
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            ReplicaRoutingDataSource routingDataSource =
+                    new ReplicaRoutingDataSource(primary, replica, readYourWritesTracker.getObject());
+            routingDataSource.afterPropertiesSet();
+            target = new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+
+        return ProxyDataSourceBuilder.create(target)
+                .name(primary.getPoolName())
+                .listener(sqlStatementListener)
+                .build();
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String hikariPrefix, Environment environment) {
+        HikariDataSource hikariDataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind(hikariPrefix, Bindable.ofInstance(hikariDataSource));
+        return hikariDataSource;
+    }
+}
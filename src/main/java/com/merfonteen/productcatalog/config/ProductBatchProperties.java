@@ -0,0 +1,15 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "catalog.batch")
+public class ProductBatchProperties {
+
+    private int chunkSize = 200;
+    private Duration idempotencyRetention = Duration.ofHours(24);
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
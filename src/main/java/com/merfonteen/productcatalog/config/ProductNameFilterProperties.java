@@ -0,0 +1,13 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "catalog.name-filter")
+public class ProductNameFilterProperties {
+
+    private boolean enabled = false;
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveRate = 0.01;
+}
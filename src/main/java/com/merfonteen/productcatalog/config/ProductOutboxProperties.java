@@ -0,0 +1,24 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "catalog.outbox")
+public class ProductOutboxProperties {
+
+    private boolean relayEnabled = true;
+    private Duration relayInterval = Duration.ofMillis(100);
+    private int batchSize = 500;
+    private int maxBatchesPerRun = 20;
+    private Duration lockTimeout = Duration.ofSeconds(30);
+    private Duration retention = Duration.ofDays(7);
+    private Duration purgeInterval = Duration.ofMinutes(10);
+    private boolean streamEnabled = true;
+    private String streamKey = "catalog:product-changes";
+    private long streamMaxLength = 100_000;
+    private Duration longPollTimeout = Duration.ofSeconds(25);
+    private int maxChangesPerPoll = 1000;
+}
@@ -0,0 +1,14 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "catalog.search")
+public class ProductSearchProperties {
+
+    private Duration catchUpInterval = Duration.ofSeconds(1);
+    private int catchUpBatchSize = 500;
+}
@@ -0,0 +1,44 @@
+package com.merfonteen.productcatalog.config;
+
+import com.merfonteen.productcatalog.util.RateLimitedOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private Limit defaults = new Limit(10, Duration.ofMinutes(1));
+    private Map<RateLimitedOperation, Limit> operations = new EnumMap<>(RateLimitedOperation.class);
+    private Local local = new Local();
+
+    public Limit forOperation(RateLimitedOperation operation) {
+        return operations.getOrDefault(operation, defaults);
+    }
+
+    public Duration getLongestPeriod() {
+        return operations.values().stream()
+                .map(Limit::getPeriod)
+                .reduce(defaults.getPeriod(), (a, b) -> a.compareTo(b) >= 0 ? a : b);
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Limit {
+        private long limit;
+        private Duration period;
+    }
+
+    @Data
+    public static class Local {
+        private boolean enabled = true;
+        private long maximumBuckets = 100_000;
+    }
+}
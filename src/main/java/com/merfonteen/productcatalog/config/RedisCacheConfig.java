@@ -1,31 +1,111 @@
 package com.merfonteen.productcatalog.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.merfonteen.productcatalog.cache.CoalescingCache;
+import com.merfonteen.productcatalog.cache.JitteredTtlFunction;
+import com.merfonteen.productcatalog.cache.ProductCacheValueSerializer;
+import com.merfonteen.productcatalog.cache.TwoLevelCacheManager;
+import com.merfonteen.productcatalog.cache.TwoLevelCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
 
 @Configuration
 @EnableCaching
 public class RedisCacheConfig {
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory,
+                                               @Value("${cache.redis.compression-threshold:1024}") int compressionThreshold,
+                                               @Value("${cache.redis.ttl:10m}") Duration ttl,
+                                               @Value("${cache.redis.ttl-jitter:0.1}") double ttlJitter) {
+        RedisSerializationContext.SerializationPair<Object> valueSerialization =
+                RedisSerializationContext.SerializationPair.fromSerializer(new ProductCacheValueSerializer(compressionThreshold));
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10));
+                .serializeValuesWith(valueSerialization)
+                .entryTtl(new JitteredTtlFunction(ttl, ttlJitter));
 
         Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
-        cacheConfigs.put("product-by-id", RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)));
-        cacheConfigs.put("products-by-category", RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)));
+        cacheConfigs.put("product-by-id", defaultConfig);
+        cacheConfigs.put("products-by-category", defaultConfig);
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        // Category pages are evicted by key pattern, which must not block Redis with KEYS
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                redisConnectionFactory, BatchStrategies.scan(1000));
+
+        return RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigs)
+                .enableStatistics()
                 .build();
     }
+
+    @Primary
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             ObjectMapper objectMapper,
+                                             @Value("${cache.local.cache-names:product-by-id}") Set<String> localCacheNames,
+                                             @Value("${cache.local.maximum-size:10000}") long localMaximumSize,
+                                             @Value("${cache.local.expire-after-write:30s}") Duration localExpireAfterWrite,
+                                             @Value("${cache.coalescing.distributed-lock:true}") boolean distributedLock,
+                                             @Value("${cache.coalescing.lock-timeout:2s}") Duration lockTimeout,
+                                             @Value("${cache.coalescing.refresh-after-write:8m}") Duration refreshAfterWrite,
+                                             @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor) {
+        UnaryOperator<Cache> coalescing = cache -> new CoalescingCache(cache,
+                distributedLock ? stringRedisTemplate : null, lockTimeout, refreshAfterWrite, cacheRefreshExecutor);
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, objectMapper,
+                localCacheNames, localMaximumSize, localExpireAfterWrite, coalescing);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("cache-refresh-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Still two refreshes at a time, but a refresh waiting on Redis or the database no longer holds a platform thread
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("cache-refresh-").getVirtualThreadFactory());
+        }
+        return executor;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public TwoLevelCacheMetrics twoLevelCacheMetrics(TwoLevelCacheManager cacheManager) {
+        return new TwoLevelCacheMetrics(cacheManager);
+    }
 }
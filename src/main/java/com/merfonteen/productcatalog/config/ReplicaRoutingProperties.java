@@ -0,0 +1,18 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica routing. The replica connection itself is configured under {@code catalog.replica.datasource}
+ * with the same keys as {@code spring.datasource}, including {@code hikari}.
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog.replica")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
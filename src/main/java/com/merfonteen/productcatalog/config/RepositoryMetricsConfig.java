@@ -0,0 +1,106 @@
+package com.merfonteen.productcatalog.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Adds a {@code spring.data.repository.rows} summary next to the invocation timings Spring Boot already
+ * records for every repository method, so a slow call can be told apart from one that returns too much.
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+    @Bean
+    static BeanPostProcessor repositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new RowCountInterceptor(
+                                    meterRegistry, information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    static final class RowCountInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final String repository;
+        private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+        RowCountInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String repository) {
+            this.meterRegistry = meterRegistry;
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            Method method = invocation.getMethod();
+            long rows = rowCount(method, result);
+            if (rows >= 0) {
+                DistributionSummary summary = summaries.computeIfAbsent(method, this::summary);
+                if (summary != null) {
+                    summary.record(rows);
+                }
+            }
+            return result;
+        }
+
+        private DistributionSummary summary(Method method) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return null;
+            }
+            return DistributionSummary.builder("spring.data.repository.rows")
+                    .description("Rows returned or affected per repository call")
+                    .tags("repository", repository, "method", method.getName())
+                    .register(registry);
+        }
+
+        /**
+         * Returns -1 for results that are not row-shaped, such as counts, existence checks and streams.
+         */
+        static long rowCount(Method method, Object result) {
+            Class<?> returnType = method.getReturnType();
+            if (returnType == void.class || returnType == boolean.class || returnType == Boolean.class) {
+                return -1;
+            }
+            if (result instanceof Number number) {
+                return method.isAnnotationPresent(Modifying.class) ? number.longValue() : -1;
+            }
+            if (result instanceof Slice<?> slice) {
+                return slice.getNumberOfElements();
+            }
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            if (Iterable.class.isAssignableFrom(returnType) || Stream.class.isAssignableFrom(returnType)) {
+                return -1;
+            }
+            return result == null ? 0 : 1;
+        }
+    }
+}
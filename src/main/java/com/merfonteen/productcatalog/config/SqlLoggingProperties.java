@@ -0,0 +1,15 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "sql.logging")
+public class SqlLoggingProperties {
+
+    private Duration slowQueryThreshold = Duration.ofMillis(500);
+    private double sampleRate = 0.0;
+    private int maxStatementsPerRequest = 50;
+}
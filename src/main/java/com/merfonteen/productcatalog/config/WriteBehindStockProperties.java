@@ -0,0 +1,22 @@
+package com.merfonteen.productcatalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.write-behind")
+public class WriteBehindStockProperties {
+
+    private boolean enabled = false;
+    private Set<Long> hotProductIds = new HashSet<>();
+    private Duration flushInterval = Duration.ofMillis(200);
+    private Duration lockTimeout = Duration.ofSeconds(30);
+
+    public boolean isManaged(Long productId) {
+        return enabled && hotProductIds.contains(productId);
+    }
+}
@@ -1,57 +1,188 @@
 package com.merfonteen.productcatalog.controller;
 
+import com.merfonteen.productcatalog.cache.ProductEtags;
+import com.merfonteen.productcatalog.dto.ProductBatchGetRequestDto;
+import com.merfonteen.productcatalog.dto.ProductBatchGetResponseDto;
+import com.merfonteen.productcatalog.dto.ProductBatchWriteRequestDto;
+import com.merfonteen.productcatalog.dto.ProductBatchWriteResponseDto;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.dto.ProductChangesResponseDto;
+import com.merfonteen.productcatalog.dto.ProductImportResultDto;
 import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
 import com.merfonteen.productcatalog.dto.ProductRequestDto;
 import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.dto.ProductSearchResponseDto;
+import com.merfonteen.productcatalog.dto.ProductStockRequestDto;
+import com.merfonteen.productcatalog.dto.ProductStockResponseDto;
 import com.merfonteen.productcatalog.dto.ProductUpdateDto;
+import com.merfonteen.productcatalog.outbox.ProductChangeFeed;
+import com.merfonteen.productcatalog.service.ProductBatchService;
+import com.merfonteen.productcatalog.service.ProductExportService;
+import com.merfonteen.productcatalog.service.ProductImportFormat;
+import com.merfonteen.productcatalog.service.ProductImportService;
+import com.merfonteen.productcatalog.service.ProductSearchService;
 import com.merfonteen.productcatalog.service.ProductService;
+import com.merfonteen.productcatalog.service.ProductStockService;
+import com.merfonteen.productcatalog.warmup.HotKeyTracker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.URI;
-import java.util.List;
 
+@Profile("!reactive")
 @RequestMapping("/api/v1/products")
 @RestController
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductSearchService productSearchService;
+    private final ProductStockService productStockService;
+    private final ProductBatchService productBatchService;
+    private final ProductChangeFeed productChangeFeed;
+    private final HotKeyTracker hotKeyTracker;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             ProductExportService productExportService,
+                             ProductSearchService productSearchService,
+                             ProductStockService productStockService,
+                             ProductBatchService productBatchService,
+                             ProductChangeFeed productChangeFeed,
+                             HotKeyTracker hotKeyTracker) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
+        this.productSearchService = productSearchService;
+        this.productStockService = productStockService;
+        this.productBatchService = productBatchService;
+        this.productChangeFeed = productChangeFeed;
+        this.hotKeyTracker = hotKeyTracker;
     }
 
-    @Operation(summary = "Get product by ID", description = "Returns a product by its unique identifier.")
+    @Operation(summary = "Get product by ID", description = "Returns a product by its unique identifier. " +
+            "Responses carry an ETag; send it back in 'If-None-Match' to get a 304 while the product is unchanged.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "304", description = "Product not modified"),
             @ApiResponse(responseCode = "404", description = "Product not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDto> getProduct(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(productService.getProduct(id));
+    public ResponseEntity<ProductResponseDto> getProduct(@PathVariable("id") Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        hotKeyTracker.recordProduct(id);
+        // Served from the product cache, so the tag always describes the product this node would return
+        ProductResponseDto product = productService.getProduct(id);
+        String etag = ProductEtags.of(product);
+        if(ProductEtags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(product);
     }
 
-    @Operation(summary = "Get products by category", description = "Returns a list of products by a certain category.")
+    @Operation(summary = "Get products by IDs", description = "Returns all requested products at once " +
+            "together with the IDs that do not exist.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products resolved"),
+            @ApiResponse(responseCode = "400", description = "Missing or too many IDs"),
+    })
+    @PostMapping("/batch-get")
+    public ResponseEntity<ProductBatchGetResponseDto> getProductsByIds(@RequestBody @Valid ProductBatchGetRequestDto request) {
+        return ResponseEntity.ok(productService.getProductsByIds(request.getIds()));
+    }
+
+    @Operation(summary = "Get products by category", description = "Returns a page of products in a certain category, " +
+            "sorted by 'price', 'createdAt' or 'name' and optionally filtered by price range and availability.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Products found"),
+            @ApiResponse(responseCode = "304", description = "Page not modified"),
+            @ApiResponse(responseCode = "400", description = "Invalid paging, sort or filter parameters"),
     })
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductResponseDto>> getProductsByCategory(@PathVariable("category") String category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    public ResponseEntity<ProductPageResponseDto> getProductsByCategory(@PathVariable("category") String category,
+                                                                        @RequestParam(required = false, defaultValue = "0") int page,
+                                                                        @RequestParam(required = false, defaultValue = "20") int size,
+                                                                        @RequestParam(required = false, defaultValue = "createdAt") String sort,
+                                                                        @RequestParam(required = false, defaultValue = "desc") String direction,
+                                                                        @RequestParam(required = false) BigDecimal minPrice,
+                                                                        @RequestParam(required = false) BigDecimal maxPrice,
+                                                                        @RequestParam(required = false, defaultValue = "false") boolean inStock) {
+        ProductCategoryQueryDto query = ProductCategoryQueryDto.fromRequest(page, size, sort, direction, minPrice, maxPrice, inStock);
+        hotKeyTracker.recordCategoryPage(category, query);
+        return withEtag(productService.getProductsByCategory(category, query));
     }
 
-    @Operation(summary = "Get all products", description = "Returns a paginated list of all products.")
+    @Operation(summary = "Get all products", description = "Returns a paginated list of all products. " +
+            "Passing the 'cursor' parameter (empty for the first page) switches to keyset pagination: " +
+            "follow 'nextCursor' for the next page; totals are only computed when 'includeTotal' is true.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Products found"),
+            @ApiResponse(responseCode = "304", description = "Page not modified"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
     })
     @GetMapping
     public ResponseEntity<ProductPageResponseDto> getProducts(@RequestParam(required = false, defaultValue = "0") int page,
-                                                              @RequestParam(required = false, defaultValue = "10") int size) {
-        return ResponseEntity.ok(productService.getProducts(page, size));
+                                                              @RequestParam(required = false, defaultValue = "10") int size,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false, defaultValue = "false") boolean includeTotal) {
+        if(cursor != null) {
+            return withEtag(productService.getProductsByCursor(cursor, size, includeTotal));
+        }
+        return withEtag(productService.getProducts(page, size));
+    }
+
+    @Operation(summary = "Search products", description = "Full-text search over name, category and description. " +
+            "Results are ranked, the last word also matches as a prefix (typeahead), and 'categoryCounts' holds " +
+            "the number of matches per category regardless of the 'category' filter.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search finished"),
+            @ApiResponse(responseCode = "400", description = "Blank query or invalid paging"),
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponseDto> searchProducts(@RequestParam("q") String query,
+                                                                   @RequestParam(required = false) String category,
+                                                                   @RequestParam(required = false, defaultValue = "0") int page,
+                                                                   @RequestParam(required = false, defaultValue = "20") int size) {
+        return ResponseEntity.ok(productSearchService.searchProducts(query, category, page, size));
+    }
+
+    @Operation(summary = "Export all products", description = "Streams the whole catalog as NDJSON, one product per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+    })
+    @GetMapping(value = "/export", produces = ProductImportFormat.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ProductImportFormat.NDJSON_MEDIA_TYPE))
+                .body(productExportService::exportProducts);
+    }
+
+    @Operation(summary = "Poll product changes", description = "Returns product changes after feed position " +
+            "'since' in order. When there are none yet the request waits for new ones up to the long-poll timeout " +
+            "and then returns an empty page; continue from 'nextSince'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes found, or none before the timeout"),
+            @ApiResponse(responseCode = "400", description = "Invalid position or limit"),
+    })
+    @GetMapping("/changes")
+    public DeferredResult<ProductChangesResponseDto> getChanges(@RequestParam(required = false, defaultValue = "0") long since,
+                                                                @RequestParam(required = false, defaultValue = "100") int limit) {
+        return productChangeFeed.changesSince(since, limit);
     }
 
     @Operation(summary = "Create product", description = "Returns a created product as a DTO")
@@ -67,6 +198,34 @@ public class ProductController {
         return ResponseEntity.created(location).body(product);
     }
 
+    @Operation(summary = "Bulk import products", description = "Streams an NDJSON or CSV (with header row) feed " +
+            "into the catalog in batched chunks and reports per-row errors and throughput.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see per-row errors"),
+            @ApiResponse(responseCode = "400", description = "Missing CSV header"),
+            @ApiResponse(responseCode = "429", description = "Too many requests"),
+    })
+    @PostMapping(value = "/import", consumes = {ProductImportFormat.NDJSON_MEDIA_TYPE, ProductImportFormat.CSV_MEDIA_TYPE})
+    public ResponseEntity<ProductImportResultDto> importProducts(InputStream body,
+                                                                 @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                 @RequestHeader("X-User-Id") Long currentUserId) {
+        ProductImportFormat format = ProductImportFormat.fromContentType(contentType);
+        return ResponseEntity.ok(productImportService.importProducts(body, format, currentUserId));
+    }
+
+    @Operation(summary = "Batch write products", description = "Applies a mixed list of create, update and delete " +
+            "operations in chunked transactions and reports a status per operation. Every operation carries an " +
+            "idempotency key, so a retried batch replays the recorded results instead of applying them twice.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-operation results"),
+            @ApiResponse(responseCode = "400", description = "Empty or too large batch"),
+            @ApiResponse(responseCode = "429", description = "Too many requests"),
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchWriteResponseDto> applyBatch(@RequestBody @Valid ProductBatchWriteRequestDto request,
+                                                                   @RequestHeader("X-User-Id") Long currentUserId) {
+        return ResponseEntity.ok(productBatchService.applyBatch(request.getOperations(), currentUserId));
+    }
 
     @Operation(summary = "Update product", description = "Returns an updated product as a DTO")
     @ApiResponses(value = {
@@ -80,6 +239,30 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProduct(id, productUpdateDto, currentUserId));
     }
 
+    @Operation(summary = "Reserve stock", description = "Atomically takes the quantity off the product's stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock reserved"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Not enough stock")
+    })
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<ProductStockResponseDto> reserveStock(@PathVariable("id") Long id,
+                                                                @RequestBody @Valid ProductStockRequestDto request) {
+        return ResponseEntity.ok(productStockService.reserveStock(id, request.getQuantity()));
+    }
+
+    @Operation(summary = "Release stock", description = "Atomically puts the quantity back into the product's stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock released"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Stock is not tracked for the product")
+    })
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<ProductStockResponseDto> releaseStock(@PathVariable("id") Long id,
+                                                                @RequestBody @Valid ProductStockRequestDto request) {
+        return ResponseEntity.ok(productStockService.releaseStock(id, request.getQuantity()));
+    }
+
     @Operation(summary = "Delete product", description = "Returns nothing")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "No content"),
@@ -90,4 +273,11 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Spring answers a matching If-None-Match with 304 itself and skips writing the body
+    private static ResponseEntity<ProductPageResponseDto> withEtag(ProductPageResponseDto page) {
+        return ResponseEntity.ok()
+                .eTag(ProductEtags.of(page))
+                .body(page);
+    }
 }
@@ -0,0 +1,35 @@
+package com.merfonteen.productcatalog.controller;
+
+import com.merfonteen.productcatalog.util.RateLimitResult;
+import com.merfonteen.productcatalog.util.RequestRateLimiter;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+@RestControllerAdvice
+public class RateLimitHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(RequestRateLimiter.RATE_LIMIT_RESULT_ATTRIBUTE)
+                instanceof RateLimitResult result) {
+            response.getHeaders().set("RateLimit-Limit", String.valueOf(result.limit()));
+            response.getHeaders().set("RateLimit-Remaining", String.valueOf(result.remaining()));
+            response.getHeaders().set("RateLimit-Reset", String.valueOf((result.resetAfter().toMillis() + 999) / 1000));
+        }
+        return body;
+    }
+}
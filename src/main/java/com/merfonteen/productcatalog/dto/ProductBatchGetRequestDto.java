@@ -0,0 +1,22 @@
+package com.merfonteen.productcatalog.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchGetRequestDto {
+
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = 500, message = "At most 500 ids can be requested at once")
+    private List<@NotNull Long> ids;
+}
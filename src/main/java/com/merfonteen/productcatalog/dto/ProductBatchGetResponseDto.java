@@ -0,0 +1,17 @@
+package com.merfonteen.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchGetResponseDto {
+    private List<ProductResponseDto> products;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,25 @@
+package com.merfonteen.productcatalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one batch operation; {@code status} uses the HTTP status the single-item endpoint would have
+ * answered with. {@code replayed} marks results of operations applied by an earlier request with the same key.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Builder(toBuilder = true)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchItemResultDto {
+    private String idempotencyKey;
+    private ProductBatchOperationType type;
+    private Long productId;
+    private int status;
+    private String error;
+    private boolean replayed;
+}
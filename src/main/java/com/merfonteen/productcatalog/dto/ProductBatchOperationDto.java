@@ -0,0 +1,33 @@
+package com.merfonteen.productcatalog.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One operation of a batch write. {@code productId} is required for UPDATE and DELETE, {@code product} for
+ * CREATE (with name and price) and UPDATE.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchOperationDto {
+
+    @NotBlank(message = "Idempotency key is required")
+    @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+    private String idempotencyKey;
+
+    @NotNull(message = "Operation type is required")
+    private ProductBatchOperationType type;
+
+    private Long productId;
+
+    @Valid
+    private ProductUpdateDto product;
+}
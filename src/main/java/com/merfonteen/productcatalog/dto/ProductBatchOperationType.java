@@ -0,0 +1,7 @@
+package com.merfonteen.productcatalog.dto;
+
+public enum ProductBatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
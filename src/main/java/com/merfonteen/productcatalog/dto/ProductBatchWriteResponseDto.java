@@ -0,0 +1,20 @@
+package com.merfonteen.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchWriteResponseDto {
+    private List<ProductBatchItemResultDto> results;
+    private int appliedOperations;
+    private int replayedOperations;
+    private int failedOperations;
+    private long durationMillis;
+}
@@ -0,0 +1,74 @@
+package com.merfonteen.productcatalog.dto;
+
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCategoryQueryDto {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private int page;
+    private int size;
+    private ProductSortField sortBy;
+    private Sort.Direction direction;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private boolean inStock;
+
+    public static ProductCategoryQueryDto fromRequest(int page, int size, String sort, String direction,
+                                                      BigDecimal minPrice, BigDecimal maxPrice, boolean inStock) {
+        return ProductCategoryQueryDto.builder()
+                .page(page)
+                .size(Math.min(size, MAX_PAGE_SIZE))
+                .sortBy(ProductSortField.fromParam(sort))
+                .direction(Sort.Direction.fromOptionalString(direction).orElseThrow(
+                        () -> new BadRequestException(String.format("Unsupported direction '%s'", direction))))
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .build();
+    }
+
+    /**
+     * Identifies one page of one filtered listing inside a category, e.g. {@code 0|20|price|ASC|10.00|-|true}.
+     * The size is capped the same way the query is, so oversized requests share the key of the page they return.
+     */
+    public String toCacheKeySegment() {
+        return String.join("|",
+                String.valueOf(page),
+                String.valueOf(Math.min(size, MAX_PAGE_SIZE)),
+                sortBy.getProperty(),
+                direction.name(),
+                minPrice != null ? minPrice.toPlainString() : "-",
+                maxPrice != null ? maxPrice.toPlainString() : "-",
+                String.valueOf(inStock));
+    }
+
+    /**
+     * Inverse of {@link #toCacheKeySegment()}.
+     */
+    public static ProductCategoryQueryDto fromCacheKeySegment(String segment) {
+        String[] parts = segment.split("\\|", -1);
+        if (parts.length != 7) {
+            throw new BadRequestException(String.format("Malformed category query '%s'", segment));
+        }
+        return ProductCategoryQueryDto.builder()
+                .page(Integer.parseInt(parts[0]))
+                .size(Integer.parseInt(parts[1]))
+                .sortBy(ProductSortField.fromParam(parts[2]))
+                .direction(Sort.Direction.valueOf(parts[3]))
+                .minPrice("-".equals(parts[4]) ? null : new BigDecimal(parts[4]))
+                .maxPrice("-".equals(parts[5]) ? null : new BigDecimal(parts[5]))
+                .inStock(Boolean.parseBoolean(parts[6]))
+                .build();
+    }
+}
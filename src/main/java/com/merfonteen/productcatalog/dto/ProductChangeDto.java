@@ -0,0 +1,21 @@
+package com.merfonteen.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeDto {
+    private long position;
+    private Long productId;
+    private ProductChangeType type;
+    private String name;
+    private String category;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,6 @@
+package com.merfonteen.productcatalog.dto;
+
+public enum ProductChangeType {
+    UPSERTED,
+    DELETED
+}
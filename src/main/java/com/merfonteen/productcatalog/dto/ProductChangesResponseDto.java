@@ -0,0 +1,21 @@
+package com.merfonteen.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of the change feed. Pass {@code nextSince} as {@code since} of the next poll.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangesResponseDto {
+    private List<ProductChangeDto> changes;
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -0,0 +1,16 @@
+package com.merfonteen.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportErrorDto {
+    private Long line;
+    private String name;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.merfonteen.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportResultDto {
+    private Long totalRows;
+    private Long importedRows;
+    private Long failedRows;
+    private List<ProductImportErrorDto> errors;
+    private Boolean errorsTruncated;
+    private Long durationMillis;
+    private Double rowsPerSecond;
+}
@@ -1,5 +1,6 @@
 package com.merfonteen.productcatalog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Builder
 @Data
 @AllArgsConstructor
@@ -17,4 +19,5 @@ public class ProductPageResponseDto {
     private Integer totalPages;
     private Long totalElements;
     private Boolean isLastPage;
+    private String nextCursor;
 }
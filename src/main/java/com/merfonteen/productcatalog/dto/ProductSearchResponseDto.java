@@ -0,0 +1,21 @@
+package com.merfonteen.productcatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchResponseDto {
+    private List<ProductResponseDto> products;
+    private Integer currentPage;
+    private Integer totalPages;
+    private Long totalHits;
+    private Map<String, Long> categoryCounts;
+}
@@ -0,0 +1,29 @@
+package com.merfonteen.productcatalog.dto;
+
+import com.merfonteen.productcatalog.exception.BadRequestException;
+
+import java.util.Arrays;
+
+public enum ProductSortField {
+    PRICE("price"),
+    CREATED_AT("createdAt"),
+    NAME("name");
+
+    private final String property;
+
+    ProductSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static ProductSortField fromParam(String param) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equalsIgnoreCase(param) || field.name().equalsIgnoreCase(param))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException(
+                        String.format("Unsupported sort '%s', expected one of price, createdAt, name", param)));
+    }
+}
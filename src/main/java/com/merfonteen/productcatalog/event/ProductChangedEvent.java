@@ -0,0 +1,20 @@
+package com.merfonteen.productcatalog.event;
+
+import com.merfonteen.productcatalog.entity.Product;
+
+/**
+ * Published inside the writing transaction whenever a product is created, updated or deleted.
+ * Carries a snapshot of the searchable fields so listeners running after commit do not touch the entity.
+ */
+public record ProductChangedEvent(Long productId, String name, String description, String category, boolean deleted) {
+
+    public static ProductChangedEvent upserted(Product product) {
+        return new ProductChangedEvent(product.getId(), product.getName(), product.getDescription(),
+                product.getCategory(), false);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(product.getId(), product.getName(), product.getDescription(),
+                product.getCategory(), true);
+    }
+}
@@ -0,0 +1,141 @@
+package com.merfonteen.productcatalog.inventory;
+
+import com.merfonteen.productcatalog.config.WriteBehindStockProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis side of write-behind stock: one counter per hot product, adjusted atomically together with a
+ * hash of the deltas the database has not seen yet. {@link StockWriteBehindFlusher} drains that hash.
+ */
+@Component
+public class RedisStockCounter {
+
+    private static final String COUNTER_KEY_PREFIX = "stock::product::";
+    private static final String PENDING_KEY = "stock::pending";
+    private static final String FLUSHING_KEY = "stock::flushing";
+    private static final String FLUSHING_BATCH_KEY = "stock::flushing::batch";
+    private static final String MANAGED_KEY = "stock::managed";
+    private static final String FLUSH_LOCK_KEY = "lock::stock::flush";
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WriteBehindStockProperties properties;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> adjustScript =
+            RedisScript.of(new ClassPathResource("scripts/stock_adjust.lua"), List.class);
+    private final RedisScript<Long> seedScript =
+            RedisScript.of(new ClassPathResource("scripts/stock_seed.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> claimScript =
+            RedisScript.of(new ClassPathResource("scripts/stock_flush_claim.lua"), List.class);
+
+    public RedisStockCounter(StringRedisTemplate stringRedisTemplate, WriteBehindStockProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+    }
+
+    public boolean isManaged(Long productId) {
+        return properties.isManaged(productId);
+    }
+
+    public StockAdjustment adjust(Long productId, long delta) {
+        List<?> reply = stringRedisTemplate.execute(adjustScript, List.of(counterKey(productId), PENDING_KEY),
+                String.valueOf(productId), String.valueOf(delta));
+        long status = ((Number) reply.get(0)).longValue();
+        long stock = ((Number) reply.get(1)).longValue();
+        if (status == 1) {
+            return new StockAdjustment(StockAdjustment.Status.APPLIED, stock);
+        }
+        return new StockAdjustment(status == 0
+                ? StockAdjustment.Status.INSUFFICIENT_STOCK
+                : StockAdjustment.Status.NOT_LOADED, stock);
+    }
+
+    /**
+     * Must only run while holding the flush lock with no batch in flight, otherwise deltas could be
+     * counted twice or not at all.
+     */
+    long seed(Long productId, long databaseStock) {
+        return stringRedisTemplate.execute(seedScript, List.of(counterKey(productId), PENDING_KEY, MANAGED_KEY),
+                String.valueOf(productId), String.valueOf(databaseStock));
+    }
+
+    /**
+     * Drops counters of products that are no longer flagged hot. Their pending deltas must have been flushed.
+     */
+    int dropUnmanagedCounters() {
+        Set<String> seeded = stringRedisTemplate.opsForSet().members(MANAGED_KEY);
+        if (seeded == null) {
+            return 0;
+        }
+        int dropped = 0;
+        for (String productId : seeded) {
+            if (!isManaged(Long.valueOf(productId))) {
+                stringRedisTemplate.delete(counterKey(Long.valueOf(productId)));
+                stringRedisTemplate.opsForSet().remove(MANAGED_KEY, productId);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Returns the batch left behind by a flush that did not complete, or moves the pending deltas into a
+     * new batch. Returns {@code null} when there is nothing to flush.
+     */
+    StockFlushBatch claimBatch() {
+        List<?> reply = stringRedisTemplate.execute(claimScript, List.of(PENDING_KEY, FLUSHING_KEY, FLUSHING_BATCH_KEY),
+                UUID.randomUUID().toString());
+        if (reply == null || reply.isEmpty()) {
+            return null;
+        }
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        for (int i = 1; i + 1 < reply.size(); i += 2) {
+            long delta = Long.parseLong(reply.get(i + 1).toString());
+            if (delta != 0) {
+                deltas.put(Long.valueOf(reply.get(i).toString()), delta);
+            }
+        }
+        return new StockFlushBatch(reply.get(0).toString(), deltas);
+    }
+
+    void completeBatch() {
+        stringRedisTemplate.delete(List.of(FLUSHING_KEY, FLUSHING_BATCH_KEY));
+    }
+
+    String tryLockFlush() {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, token, properties.getLockTimeout());
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    String lockFlush(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        String token = tryLockFlush();
+        while (token == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            token = tryLockFlush();
+        }
+        return token;
+    }
+
+    void unlockFlush(String token) {
+        stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), token);
+    }
+
+    private static String counterKey(Long productId) {
+        return COUNTER_KEY_PREFIX + productId;
+    }
+}
@@ -0,0 +1,10 @@
+package com.merfonteen.productcatalog.inventory;
+
+public record StockAdjustment(Status status, long stock) {
+
+    public enum Status {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_LOADED
+    }
+}
@@ -0,0 +1,9 @@
+package com.merfonteen.productcatalog.inventory;
+
+import java.util.Map;
+
+/**
+ * Stock deltas taken out of Redis to be applied to the database in one transaction.
+ */
+public record StockFlushBatch(String batchId, Map<Long, Long> deltas) {
+}
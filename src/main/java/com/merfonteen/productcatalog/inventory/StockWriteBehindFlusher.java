@@ -0,0 +1,201 @@
+package com.merfonteen.productcatalog.inventory;
+
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.config.WriteBehindStockProperties;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
+import com.merfonteen.productcatalog.exception.ConflictException;
+import com.merfonteen.productcatalog.exception.NotFoundException;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Database side of write-behind stock: applies the deltas collected by {@link RedisStockCounter} in one
+ * batched transaction every {@code inventory.write-behind.flush-interval}, and on startup finishes any batch
+ * an earlier process left behind and seeds the counters of hot products. The database stays the durable
+ * source of truth; Redis only holds what has not been flushed yet.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class StockWriteBehindFlusher {
+
+    private static final Duration SEED_LOCK_WAIT = Duration.ofSeconds(2);
+
+    private final RedisStockCounter redisStockCounter;
+    private final WriteBehindStockProperties properties;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() throws InterruptedException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String token = redisStockCounter.lockFlush(properties.getLockTimeout());
+        if (token == null) {
+            log.warn("Could not take the stock flush lock, skipping write-behind reconciliation");
+            return;
+        }
+        try {
+            int flushed = flushPending();
+            int dropped = redisStockCounter.dropUnmanagedCounters();
+            for (Long productId : properties.getHotProductIds()) {
+                productRepository.findById(productId)
+                        .filter(product -> product.getStock() != null)
+                        .ifPresent(product -> redisStockCounter.seed(productId, product.getStock()));
+            }
+            log.info("Reconciled write-behind stock: flushed {} products, dropped {} stale counters, {} hot products",
+                    flushed, dropped, properties.getHotProductIds().size());
+        } finally {
+            redisStockCounter.unlockFlush(token);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.write-behind.flush-interval:200ms}")
+    public void flush() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String token = redisStockCounter.tryLockFlush();
+        if (token == null) {
+            // Another node is flushing
+            return;
+        }
+        try {
+            flushPending();
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush write-behind stock, the batch is retried on the next run", ex);
+        } finally {
+            redisStockCounter.unlockFlush(token);
+        }
+    }
+
+    /**
+     * Creates the counter of a hot product that has none yet, e.g. after Redis lost its data.
+     */
+    public void seedCounter(Long productId) {
+        String token;
+        try {
+            token = redisStockCounter.lockFlush(SEED_LOCK_WAIT);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while loading stock of product " + productId);
+        }
+        if (token == null) {
+            throw new ConflictException("Stock of product " + productId + " is being loaded, retry shortly");
+        }
+        try {
+            // Deltas of a half-finished batch must reach the database before it is read
+            flushPending();
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new NotFoundException("Product not found by id: " + productId));
+            if (product.getStock() == null) {
+                throw new ConflictException("Stock is not tracked for product " + productId);
+            }
+            redisStockCounter.seed(productId, product.getStock());
+        } finally {
+            redisStockCounter.unlockFlush(token);
+        }
+    }
+
+    private int flushPending() {
+        StockFlushBatch batch = redisStockCounter.claimBatch();
+        if (batch == null) {
+            return 0;
+        }
+        if (!batch.deltas().isEmpty()) {
+            applyOnce(batch);
+        }
+        redisStockCounter.completeBatch();
+
+        Cache productCache = cacheManager.getCache("product-by-id");
+        if (productCache != null) {
+            batch.deltas().keySet().forEach(productCache::evict);
+        }
+        return batch.deltas().size();
+    }
+
+    private void applyOnce(StockFlushBatch batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Also serializes flushes: the row stays locked until commit
+            int claimed = jdbcTemplate.update(
+                    "UPDATE stock_flush_state SET last_batch_id = ? WHERE id = 1 AND last_batch_id <> ?",
+                    batch.batchId(), batch.batchId());
+            List<FlushedProduct> products = findProducts(batch.deltas().keySet());
+            if (claimed == 0) {
+                log.info("Stock batch {} was already applied, skipping it", batch.batchId());
+                // Whether a product crossed zero is no longer known, and the first run may have died before evicting
+                productCacheInvalidator.evictCategories(products.stream()
+                        .map(FlushedProduct::category)
+                        .toArray(String[]::new));
+                return;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(batch.deltas().size());
+            for (Map.Entry<Long, Long> delta : batch.deltas().entrySet()) {
+                rows.add(new Object[]{delta.getValue(), now, delta.getKey()});
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE products SET stock = stock + ?, version = version + 1, updated_at = ? WHERE id = ?", rows);
+
+            // Same rule as reserve/release: listings filtered by stock change only when a product sells out or comes back
+            Set<String> categories = new HashSet<>();
+            for (FlushedProduct product : products) {
+                // Lands in the outbox with this transaction, like the change a direct reservation publishes
+                applicationEventPublisher.publishEvent(new ProductChangedEvent(product.id(), product.name(),
+                        product.description(), product.category(), false));
+                if (product.stock() == null) {
+                    continue;
+                }
+                long flushedStock = product.stock() + batch.deltas().get(product.id());
+                if ((product.stock() > 0) != (flushedStock > 0)) {
+                    categories.add(product.category());
+                }
+            }
+            productCacheInvalidator.evictCategories(categories.toArray(String[]::new));
+        });
+        log.debug("Flushed stock batch {} for {} products", batch.batchId(), batch.deltas().size());
+    }
+
+    private List<FlushedProduct> findProducts(Set<Long> productIds) {
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        return jdbcTemplate.query(
+                "SELECT id, name, description, category, stock FROM products WHERE id IN (" + placeholders + ")",
+                (rs, rowNum) -> new FlushedProduct(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getString("category"),
+                        rs.getObject("stock", Integer.class)),
+                productIds.toArray());
+    }
+
+    private record FlushedProduct(Long id, String name, String description, String category, Integer stock) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the statements of the enclosed code on the primary, even inside a read-only transaction. Loads that fill
+ * the shared caches go through here: a value read from a lagging replica would be served by every node until the
+ * entry expires, long after the replica has caught up, and warm-up or refresh threads have no user whose
+ * read-your-writes window could route them to the primary instead.
+ * <p>
+ * The connection is chosen on the first statement of a transaction, so the first statement has to run inside.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        if (isActive()) {
+            return reads.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+}
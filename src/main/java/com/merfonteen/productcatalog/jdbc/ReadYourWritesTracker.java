@@ -0,0 +1,60 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import com.merfonteen.productcatalog.config.ReplicaRoutingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers users who wrote within {@code catalog.replica.read-your-writes-window}, so their reads stay on the
+ * primary until the replica has caught up. The marks live in Redis so they hold on every node; the node that
+ * took the write also keeps a local copy and answers from it without a round trip.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalog.replica.enabled", havingValue = "true")
+@Component
+public class ReadYourWritesTracker {
+
+    private static final String KEY_PREFIX = "rw::user::";
+    private static final int MAX_LOCAL_MARKS = 100_000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ReplicaRoutingProperties properties;
+    private final Map<Long, Long> localDeadlines = new ConcurrentHashMap<>();
+
+    public void markWrite(Long userId) {
+        long now = System.nanoTime();
+        localDeadlines.put(userId, now + properties.getReadYourWritesWindow().toNanos());
+        if (localDeadlines.size() > MAX_LOCAL_MARKS) {
+            localDeadlines.values().removeIf(deadline -> deadline - now < 0);
+        }
+        try {
+            stringRedisTemplate.opsForValue().set(KEY_PREFIX + userId, "1", properties.getReadYourWritesWindow());
+        } catch (RuntimeException ex) {
+            log.debug("Could not share the write mark of user {}, other nodes may serve stale reads: {}",
+                    userId, ex.getMessage());
+        }
+    }
+
+    public boolean isSticky(Long userId) {
+        Long deadline = localDeadlines.get(userId);
+        if (deadline != null) {
+            if (deadline - System.nanoTime() > 0) {
+                return true;
+            }
+            localDeadlines.remove(userId, deadline);
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(KEY_PREFIX + userId));
+        } catch (RuntimeException ex) {
+            // Without the marks we cannot rule out a recent write, so read from the primary
+            return true;
+        }
+    }
+}
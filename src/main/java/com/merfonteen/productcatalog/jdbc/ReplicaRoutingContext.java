@@ -0,0 +1,50 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import java.util.function.Predicate;
+
+/**
+ * Per-thread user of the current request, so {@link ReplicaRoutingDataSource} can keep a user who just wrote
+ * on the primary. Whether the user is sticky is resolved at most once per request, and only if it reads.
+ */
+final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<ReplicaRoutingContext> CURRENT = new ThreadLocal<>();
+
+    private final Long userId;
+    private Boolean sticky;
+
+    private ReplicaRoutingContext(Long userId) {
+        this.userId = userId;
+    }
+
+    static void start(Long userId) {
+        CURRENT.set(new ReplicaRoutingContext(userId));
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static Long currentUserId() {
+        ReplicaRoutingContext context = CURRENT.get();
+        return context != null ? context.userId : null;
+    }
+
+    static boolean isSticky(Predicate<Long> lookup) {
+        ReplicaRoutingContext context = CURRENT.get();
+        if (context == null || context.userId == null) {
+            return false;
+        }
+        if (context.sticky == null) {
+            context.sticky = lookup.test(context.userId);
+        }
+        return context.sticky;
+    }
+
+    static void markWritten() {
+        ReplicaRoutingContext context = CURRENT.get();
+        if (context != null) {
+            context.sticky = true;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary, except that a user who
+ * wrote within the read-your-writes window keeps reading from the primary. Committing a read-write transaction
+ * on behalf of a user starts that window. Reads wrapped in {@link PrimaryReads} stay on the primary as well.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager takes its connection before the transaction is marked read-only, and the proxy delays the choice
+ * until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Long userId = ReplicaRoutingContext.currentUserId();
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ReplicaRoutingContext.markWritten();
+                        readYourWritesTracker.markWrite(userId);
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        if (PrimaryReads.isActive()) {
+            return Target.PRIMARY;
+        }
+        return ReplicaRoutingContext.isSticky(readYourWritesTracker::isSticky) ? Target.PRIMARY : Target.REPLICA;
+    }
+}
@@ -0,0 +1,45 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import com.merfonteen.productcatalog.config.SqlLoggingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Flags requests that execute more than {@code sql.logging.max-statements-per-request} statements,
+ * which usually means a lazy association or a repository call is being resolved row by row.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private final SqlLoggingProperties sqlLoggingProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            if (statements > sqlLoggingProperties.getMaxStatementsPerRequest()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                log.warn("{} {} executed {} SQL statements (limit {}), possible N+1 query",
+                        request.getMethod(), pattern != null ? pattern : request.getRequestURI(),
+                        statements, sqlLoggingProperties.getMaxStatementsPerRequest());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.merfonteen.productcatalog.jdbc;
+
+/**
+ * Per-thread count of executed JDBC statements, only tracked between {@link #start()} and {@link #stop()}.
+ */
+final class SqlStatementCounter {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    static void start() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    static void increment() {
+        int[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+    }
+
+    static int stop() {
+        int[] statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements != null ? statements[0] : 0;
+    }
+}
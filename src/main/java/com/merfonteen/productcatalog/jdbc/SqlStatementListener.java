@@ -0,0 +1,86 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import com.merfonteen.productcatalog.config.SqlLoggingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Logs statements slower than {@code sql.logging.slow-query-threshold} together with their bind parameters,
+ * and a {@code sql.logging.sample-rate} fraction of all others. Replaces Hibernate's show-sql, which printed
+ * every statement.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final int MAX_LOGGED_BATCH_ENTRIES = 3;
+    private static final int MAX_PARAMETER_LENGTH = 64;
+
+    private final SqlLoggingProperties sqlLoggingProperties;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementCounter.increment();
+
+        long elapsedMillis = execInfo.getElapsedTime();
+        if (elapsedMillis >= sqlLoggingProperties.getSlowQueryThreshold().toMillis()) {
+            log.warn("Slow SQL statement took {} ms (batch size {}): {} parameters {}",
+                    elapsedMillis, execInfo.getBatchSize(), sql(queryInfoList), parameters(queryInfoList));
+        } else if (sqlLoggingProperties.getSampleRate() > 0 && log.isInfoEnabled()
+                && ThreadLocalRandom.current().nextDouble() < sqlLoggingProperties.getSampleRate()) {
+            log.info("Sampled SQL statement took {} ms (batch size {}): {} parameters {}",
+                    elapsedMillis, execInfo.getBatchSize(), sql(queryInfoList), parameters(queryInfoList));
+        }
+    }
+
+    private static String sql(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .distinct()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String parameters(List<QueryInfo> queryInfoList) {
+        StringBuilder rendered = new StringBuilder("[");
+        int entries = 0;
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+                if (++entries > MAX_LOGGED_BATCH_ENTRIES) {
+                    continue;
+                }
+                rendered.append(entries > 1 ? ", (" : "(");
+                for (int i = 0; i < operations.size(); i++) {
+                    rendered.append(i > 0 ? ", " : "").append(parameter(operations.get(i)));
+                }
+                rendered.append(')');
+            }
+        }
+        if (entries > MAX_LOGGED_BATCH_ENTRIES) {
+            rendered.append(" and ").append(entries - MAX_LOGGED_BATCH_ENTRIES).append(" more");
+        }
+        return rendered.append(']').toString();
+    }
+
+    private static String parameter(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if ("setNull".equals(operation.getMethod().getName()) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        String value = String.valueOf(args[1]);
+        return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+    }
+}
@@ -3,6 +3,7 @@ package com.merfonteen.productcatalog.mapper;
 import com.merfonteen.productcatalog.dto.ProductResponseDto;
 import com.merfonteen.productcatalog.entity.Product;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
@@ -11,6 +12,7 @@ public interface ProductMapper {
 
     ProductResponseDto toDto(Product product);
 
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductResponseDto productResponseDto);
 
     List<ProductResponseDto> toDtos(List<Product> products);
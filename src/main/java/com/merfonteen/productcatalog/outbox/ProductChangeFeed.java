@@ -0,0 +1,117 @@
+package com.merfonteen.productcatalog.outbox;
+
+import com.merfonteen.productcatalog.config.ProductOutboxProperties;
+import com.merfonteen.productcatalog.dto.ProductChangeDto;
+import com.merfonteen.productcatalog.dto.ProductChangesResponseDto;
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long-poll access to relayed product changes. A poll with nothing new parks without holding a thread and
+ * is completed when the relay announces a position past its {@code since}, or answered empty on timeout.
+ */
+@Slf4j
+@Component
+public class ProductChangeFeed implements MessageListener {
+
+    private final ProductOutboxRepository productOutboxRepository;
+    private final ProductOutboxProperties properties;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastRelayedPosition = new AtomicLong();
+
+    public ProductChangeFeed(ProductOutboxRepository productOutboxRepository,
+                             ProductOutboxProperties properties,
+                             RedisMessageListenerContainer listenerContainer,
+                             MeterRegistry meterRegistry) {
+        this.productOutboxRepository = productOutboxRepository;
+        this.properties = properties;
+        listenerContainer.addMessageListener(this, new ChannelTopic(ProductOutboxRelay.CHANGES_CHANNEL));
+        Gauge.builder("outbox.feed.waiters", waiters, Set::size)
+                .description("Long-polls waiting for product changes")
+                .register(meterRegistry);
+    }
+
+    public DeferredResult<ProductChangesResponseDto> changesSince(long since, int limit) {
+        if (since < 0 || limit < 1) {
+            throw new BadRequestException("'since' must not be negative and 'limit' must be positive");
+        }
+        int pageSize = Math.min(limit, properties.getMaxChangesPerPoll());
+        DeferredResult<ProductChangesResponseDto> result = new DeferredResult<>(
+                properties.getLongPollTimeout().toMillis(), () -> page(since, pageSize, List.of()));
+
+        List<ProductChangeDto> changes = productOutboxRepository.findRelayedAfter(since, pageSize + 1);
+        if (!changes.isEmpty()) {
+            result.setResult(page(since, pageSize, changes));
+            return result;
+        }
+
+        Waiter waiter = new Waiter(since, pageSize, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // The relay may have announced new changes between the read above and registering the waiter
+        if (lastRelayedPosition.get() > since) {
+            wake(List.of(waiter));
+        }
+        return result;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        long position;
+        try {
+            position = Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed product change notification: {}", ex.getMessage());
+            return;
+        }
+        lastRelayedPosition.accumulateAndGet(position, Math::max);
+        wake(waiters.stream().filter(waiter -> waiter.since() < position).toList());
+    }
+
+    private void wake(Collection<Waiter> ready) {
+        // Polls from the same position share one read
+        Map<Long, List<ProductChangeDto>> reads = new HashMap<>();
+        try {
+            for (Waiter waiter : ready) {
+                List<ProductChangeDto> changes = reads.computeIfAbsent(waiter.since(),
+                        since -> productOutboxRepository.findRelayedAfter(since, properties.getMaxChangesPerPoll() + 1));
+                if (!changes.isEmpty()) {
+                    waiter.result().setResult(page(waiter.since(), waiter.limit(), changes));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to read product changes for waiting polls, they time out instead: {}", ex.getMessage());
+        }
+    }
+
+    private static ProductChangesResponseDto page(long since, int limit, List<ProductChangeDto> changes) {
+        boolean hasMore = changes.size() > limit;
+        List<ProductChangeDto> page = hasMore ? changes.subList(0, limit) : changes;
+        return ProductChangesResponseDto.builder()
+                .changes(page)
+                .nextSince(page.isEmpty() ? since : page.get(page.size() - 1).getPosition())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private record Waiter(long since, int limit, DeferredResult<ProductChangesResponseDto> result) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.merfonteen.productcatalog.outbox;
+
+import com.merfonteen.productcatalog.dto.ProductChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row that has not been relayed yet.
+ */
+public record ProductOutboxEntry(long id, Long productId, ProductChangeType type, String name, String category,
+                                 LocalDateTime createdAt) {
+}
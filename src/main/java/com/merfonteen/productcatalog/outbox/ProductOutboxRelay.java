@@ -0,0 +1,170 @@
+package com.merfonteen.productcatalog.outbox;
+
+import com.merfonteen.productcatalog.config.ProductOutboxProperties;
+import com.merfonteen.productcatalog.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Relays outbox rows in id order: hands each one the next feed position, appends it to the Redis stream and
+ * announces the new last position on {@link #CHANGES_CHANNEL} so long-polls on every node wake up. One node
+ * relays at a time; the Redis lock keeps the others from queueing on the state row, which is what actually
+ * serializes relays. A backlog is drained in consecutive batches within one run. Stream appends happen before
+ * commit, so a failed commit can repeat an entry but never lose one; consumers dedupe by position.
+ */
+@Slf4j
+@Component
+public class ProductOutboxRelay {
+
+    public static final String CHANGES_CHANNEL = "catalog:product-changes:relayed";
+
+    private static final String RELAY_LOCK_KEY = "lock::outbox::relay";
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ProductOutboxRepository productOutboxRepository;
+    private final ProductOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Counter relayedChanges;
+    private final Timer relayLag;
+
+    public ProductOutboxRelay(ProductOutboxRepository productOutboxRepository,
+                              ProductOutboxProperties properties,
+                              TransactionTemplate transactionTemplate,
+                              StringRedisTemplate stringRedisTemplate,
+                              MeterRegistry meterRegistry) {
+        this.productOutboxRepository = productOutboxRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.relayedChanges = Counter.builder("outbox.relayed")
+                .description("Product changes relayed from the outbox")
+                .register(meterRegistry);
+        this.relayLag = Timer.builder("outbox.relay.lag")
+                .description("Time from writing a product change to relaying it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.relay-interval:100ms}")
+    public void relay() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(RELAY_LOCK_KEY, token, properties.getLockTimeout());
+            if (!Boolean.TRUE.equals(acquired)) {
+                // Another node is relaying
+                return;
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Could not take the outbox relay lock: {}", ex.getMessage());
+            return;
+        }
+
+        long lastPosition = 0;
+        try {
+            for (int run = 0; run < properties.getMaxBatchesPerRun(); run++) {
+                RelayedBatch batch = transactionTemplate.execute(status -> relayBatch());
+                if (batch == null) {
+                    break;
+                }
+                lastPosition = batch.lastPosition();
+                recordMetrics(batch);
+                if (batch.entries().size() < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to relay product changes, they are retried on the next run", ex);
+        } finally {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(RELAY_LOCK_KEY), token);
+        }
+
+        if (lastPosition > 0) {
+            stringRedisTemplate.convertAndSend(CHANGES_CHANNEL, String.valueOf(lastPosition));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.purge-interval:10m}")
+    public void purgeRelayed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        int purged = productOutboxRepository.deleteRelayedBefore(cutoff);
+        if (purged > 0) {
+            log.debug("Purged {} product changes relayed before {}", purged, cutoff);
+        }
+    }
+
+    private RelayedBatch relayBatch() {
+        long firstPosition = productOutboxRepository.lockLastPosition() + 1;
+        List<ProductOutboxEntry> entries = productOutboxRepository.findUnrelayed(properties.getBatchSize());
+        if (entries.isEmpty()) {
+            return null;
+        }
+        LocalDateTime relayedAt = LocalDateTime.now();
+        productOutboxRepository.markRelayed(entries, firstPosition, relayedAt);
+        if (properties.isStreamEnabled()) {
+            appendToStream(entries, firstPosition);
+        }
+        return new RelayedBatch(entries, firstPosition + entries.size() - 1, relayedAt);
+    }
+
+    private void appendToStream(List<ProductOutboxEntry> entries, long firstPosition) {
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions
+                .maxlen(properties.getStreamMaxLength())
+                .approximateTrimming(true);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (int i = 0; i < entries.size(); i++) {
+                ProductOutboxEntry entry = entries.get(i);
+                Map<String, String> fields = new LinkedHashMap<>();
+                fields.put("position", String.valueOf(firstPosition + i));
+                fields.put("productId", String.valueOf(entry.productId()));
+                fields.put("type", entry.type().name());
+                if (entry.name() != null) {
+                    fields.put("name", entry.name());
+                }
+                if (entry.category() != null) {
+                    fields.put("category", entry.category());
+                }
+                fields.put("changedAt", entry.createdAt().toString());
+                stringConnection.xAdd(StreamRecords.string(fields).withStreamKey(properties.getStreamKey()), options);
+            }
+            return null;
+        });
+    }
+
+    private void recordMetrics(RelayedBatch batch) {
+        relayedChanges.increment(batch.entries().size());
+        for (ProductOutboxEntry entry : batch.entries()) {
+            relayLag.record(Duration.between(entry.createdAt(), batch.relayedAt()));
+        }
+    }
+
+    private record RelayedBatch(List<ProductOutboxEntry> entries, long lastPosition, LocalDateTime relayedAt) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.merfonteen.productcatalog.outbox;
+
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
+import com.merfonteen.productcatalog.repository.ProductOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every {@link ProductChangedEvent} to the outbox in the transaction that published it. Events are
+ * collected per transaction and inserted in one JDBC batch just before commit, so a chunk of an import or a
+ * batch write adds one statement rather than one per product, and a rolled back change never reaches the outbox.
+ */
+@RequiredArgsConstructor
+@Component
+public class ProductOutboxWriter {
+
+    private final ProductOutboxRepository productOutboxRepository;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productOutboxRepository.append(List.of(event), LocalDateTime.now());
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<ProductChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            productOutboxRepository.append(events, LocalDateTime.now());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductOutboxWriter.this);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.merfonteen.productcatalog.repository;
+
+import com.merfonteen.productcatalog.dto.ProductBatchItemResultDto;
+import com.merfonteen.productcatalog.dto.ProductBatchOperationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of applied batch operations by user and idempotency key. Written in the same transaction as the
+ * products they describe, so a key is recorded exactly when its operation committed.
+ */
+@RequiredArgsConstructor
+@Repository
+public class ProductBatchIdempotencyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public Map<String, ProductBatchItemResultDto> findApplied(Long userId, Collection<String> idempotencyKeys) {
+        Map<String, ProductBatchItemResultDto> applied = new HashMap<>();
+        if (idempotencyKeys.isEmpty()) {
+            return applied;
+        }
+        namedParameterJdbcTemplate.query("""
+                        SELECT idempotency_key, operation, product_id, status
+                        FROM product_batch_idempotency
+                        WHERE user_id = :userId AND idempotency_key IN (:keys)
+                        """,
+                new MapSqlParameterSource("userId", userId).addValue("keys", idempotencyKeys),
+                rs -> {
+                    long productId = rs.getLong("product_id");
+                    applied.put(rs.getString("idempotency_key"), ProductBatchItemResultDto.builder()
+                            .idempotencyKey(rs.getString("idempotency_key"))
+                            .type(ProductBatchOperationType.valueOf(rs.getString("operation")))
+                            .productId(rs.wasNull() ? null : productId)
+                            .status(rs.getInt("status"))
+                            .replayed(true)
+                            .build());
+                });
+        return applied;
+    }
+
+    public void saveApplied(Long userId, List<ProductBatchItemResultDto> results, LocalDateTime appliedAt) {
+        if (results.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(appliedAt);
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO product_batch_idempotency (user_id, idempotency_key, operation, product_id, status, created_at)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """,
+                results, results.size(), (ps, result) -> {
+                    ps.setLong(1, userId);
+                    ps.setString(2, result.getIdempotencyKey());
+                    ps.setString(3, result.getType().name());
+                    if (result.getProductId() != null) {
+                        ps.setLong(4, result.getProductId());
+                    } else {
+                        ps.setNull(4, Types.BIGINT);
+                    }
+                    ps.setInt(5, result.getStatus());
+                    ps.setTimestamp(6, timestamp);
+                });
+    }
+
+    public int deleteAppliedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM product_batch_idempotency WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
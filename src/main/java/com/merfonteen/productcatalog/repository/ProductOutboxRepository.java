@@ -0,0 +1,112 @@
+package com.merfonteen.productcatalog.repository;
+
+import com.merfonteen.productcatalog.dto.ProductChangeDto;
+import com.merfonteen.productcatalog.dto.ProductChangeType;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
+import com.merfonteen.productcatalog.outbox.ProductOutboxEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Repository
+public class ProductOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(List<ProductChangedEvent> events, LocalDateTime changedAt) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(changedAt);
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO product_outbox (product_id, change_type, name, category, created_at)
+                        VALUES (?, ?, ?, ?, ?)
+                        """,
+                events, events.size(), (ps, event) -> {
+                    ps.setLong(1, event.productId());
+                    ps.setString(2, (event.deleted() ? ProductChangeType.DELETED : ProductChangeType.UPSERTED).name());
+                    ps.setString(3, event.name());
+                    ps.setString(4, event.category());
+                    ps.setTimestamp(5, timestamp);
+                });
+    }
+
+    /**
+     * Locks the relay state row until the end of the transaction and returns the last position handed out.
+     */
+    public long lockLastPosition() {
+        Long lastPosition = jdbcTemplate.queryForObject(
+                "SELECT last_position FROM product_outbox_state WHERE id = 1 FOR UPDATE", Long.class);
+        return lastPosition != null ? lastPosition : 0;
+    }
+
+    /**
+     * The last position handed out, read without locking.
+     */
+    public long findLastPosition() {
+        Long lastPosition = jdbcTemplate.queryForObject(
+                "SELECT last_position FROM product_outbox_state WHERE id = 1", Long.class);
+        return lastPosition != null ? lastPosition : 0;
+    }
+
+    public List<ProductOutboxEntry> findUnrelayed(int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, product_id, change_type, name, category, created_at
+                        FROM product_outbox
+                        WHERE relayed_at IS NULL
+                        ORDER BY id
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new ProductOutboxEntry(
+                        rs.getLong("id"),
+                        rs.getLong("product_id"),
+                        ProductChangeType.valueOf(rs.getString("change_type")),
+                        rs.getString("name"),
+                        rs.getString("category"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                limit);
+    }
+
+    /**
+     * Hands out positions {@code firstPosition, firstPosition + 1, ...} to {@code entries} in their order.
+     */
+    public void markRelayed(List<ProductOutboxEntry> entries, long firstPosition, LocalDateTime relayedAt) {
+        Timestamp timestamp = Timestamp.valueOf(relayedAt);
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            rows.add(new Object[]{firstPosition + i, timestamp, entries.get(i).id()});
+        }
+        jdbcTemplate.batchUpdate("UPDATE product_outbox SET feed_position = ?, relayed_at = ? WHERE id = ?", rows);
+        jdbcTemplate.update("UPDATE product_outbox_state SET last_position = ? WHERE id = 1",
+                firstPosition + entries.size() - 1);
+    }
+
+    public List<ProductChangeDto> findRelayedAfter(long position, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT feed_position, product_id, change_type, name, category, created_at
+                        FROM product_outbox
+                        WHERE feed_position > ?
+                        ORDER BY feed_position
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> ProductChangeDto.builder()
+                        .position(rs.getLong("feed_position"))
+                        .productId(rs.getLong("product_id"))
+                        .type(ProductChangeType.valueOf(rs.getString("change_type")))
+                        .name(rs.getString("name"))
+                        .category(rs.getString("category"))
+                        .changedAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .build(),
+                position, limit);
+    }
+
+    public int deleteRelayedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM product_outbox WHERE relayed_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
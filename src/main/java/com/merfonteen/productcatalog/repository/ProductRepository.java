@@ -1,14 +1,70 @@
 package com.merfonteen.productcatalog.repository;
 
 import com.merfonteen.productcatalog.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    Optional<Product> findByName(String name);
-    List<Product> findAllByCategory(String category);
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+    boolean existsByName(String name);
+
+    @Query("select p.name from Product p where p.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllOrderById();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.name from Product p")
+    Stream<String> streamAllNames();
+
+    /**
+     * Takes {@code quantity} off the stock in a single conditional statement, so concurrent reservations
+     * only queue on the row lock instead of losing updates. Returns 0 when the product is missing or short.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p
+            set p.stock = p.stock - :quantity, p.version = p.version + 1, p.updatedAt = :now
+            where p.id = :id and p.stock >= :quantity
+            """)
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p
+            set p.stock = p.stock + :quantity, p.version = p.version + 1, p.updatedAt = :now
+            where p.id = :id and p.stock is not null
+            """)
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Query("select p from Product p order by p.createdAt desc, p.id desc")
+    List<Product> findFirstKeysetPage(Limit limit);
+
+    @Query("""
+            select p from Product p
+            where p.createdAt <= :createdAt
+              and (p.createdAt < :createdAt or p.id < :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<Product> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Limit limit);
 }
@@ -0,0 +1,32 @@
+package com.merfonteen.productcatalog.repository;
+
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.entity.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> inCategory(String category, ProductCategoryQueryDto query) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.equal(root.get("category"), category));
+            if (query.getMinPrice() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), query.getMinPrice()));
+            }
+            if (query.getMaxPrice() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), query.getMaxPrice()));
+            }
+            if (query.isInStock()) {
+                predicates.add(criteriaBuilder.greaterThan(root.get("stock"), 0));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.merfonteen.productcatalog.search;
+
+import com.merfonteen.productcatalog.config.ProductNameFilterProperties;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Optional Bloom filter over all product names ({@code catalog.name-filter.enabled}). Names it has never seen
+ * are certainly free on this node's view of the catalog, so creates only look a name up when the filter says
+ * it may be taken. Deleted or renamed names stay in the filter and names created on other nodes only arrive
+ * with the next startup; both cases just fall through to the unique index, which remains the authority.
+ */
+@Slf4j
+@Component
+public class ProductNameFilter {
+
+    private final ProductRepository productRepository;
+    private final BloomFilter bloomFilter;
+
+    public ProductNameFilter(ProductNameFilterProperties properties, ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        this.bloomFilter = properties.isEnabled()
+                ? new BloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveRate())
+                : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (bloomFilter == null) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+        try (Stream<String> names = productRepository.streamAllNames()) {
+            names.forEach(name -> {
+                bloomFilter.put(name);
+                loaded.incrementAndGet();
+            });
+        }
+        log.info("Loaded {} product names into the name filter in {} ms", loaded.get(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (bloomFilter != null && !event.deleted() && event.name() != null) {
+            bloomFilter.put(event.name());
+        }
+    }
+
+    /**
+     * {@code false} means no product with this name is known here; always {@code false} when the filter is disabled.
+     */
+    public boolean mightExist(String name) {
+        return bloomFilter != null && bloomFilter.mightContain(name);
+    }
+}
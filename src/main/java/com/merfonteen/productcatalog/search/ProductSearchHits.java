@@ -0,0 +1,11 @@
+package com.merfonteen.productcatalog.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of matching product ids in rank order, the total number of matches and the number of
+ * matches per category (computed before the category filter, so clients can offer the other categories).
+ */
+public record ProductSearchHits(List<Long> productIds, long totalHits, Map<String, Long> categoryCounts) {
+}
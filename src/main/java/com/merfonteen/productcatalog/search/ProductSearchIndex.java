@@ -0,0 +1,220 @@
+package com.merfonteen.productcatalog.search;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, category and description.
+ * <p>
+ * Terms are lower-cased and stripped of diacritics. Each posting holds a field-weighted term frequency,
+ * and a hit is scored as the sum of weight times inverse document frequency over the query terms.
+ * All query terms must match. The last query term also matches as a prefix, for typeahead.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.8f;
+    private static final int MAX_PREFIX_EXPANSIONS = 100;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+    public void index(Long productId, String name, String description, String category) {
+        Map<String, Float> termWeights = new HashMap<>();
+        addTerms(termWeights, name, NAME_WEIGHT);
+        addTerms(termWeights, category, CATEGORY_WEIGHT);
+        addTerms(termWeights, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removePostings(productId);
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+            products.put(productId, new IndexedProduct(category, termWeights.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removePostings(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps in the contents of an index built off to the side, so searches never see a partly rebuilt index.
+     */
+    public void replaceContents(ProductSearchIndex source) {
+        source.lock.readLock().lock();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            postings.putAll(source.postings);
+            products.clear();
+            products.putAll(source.products);
+        } finally {
+            lock.writeLock().unlock();
+            source.lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            products.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ProductSearchHits search(String query, String category, long offset, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new ProductSearchHits(List.of(), 0, Map.of());
+        }
+
+        Map<String, Long> categoryCounts = new HashMap<>();
+        List<Map.Entry<Long, Float>> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Float> hit : score(queryTerms).entrySet()) {
+                String hitCategory = products.get(hit.getKey()).category();
+                if (hitCategory != null) {
+                    categoryCounts.merge(hitCategory, 1L, Long::sum);
+                }
+                if (category == null || category.equals(hitCategory)) {
+                    hits.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        List<Long> page = hits.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        return new ProductSearchHits(page, hits.size(), sortByCount(categoryCounts));
+    }
+
+    // Caller holds the read lock
+    private Map<Long, Float> score(List<String> queryTerms) {
+        int documentCount = products.size();
+        Map<Long, Float> scores = null;
+        for (int i = 0; i < queryTerms.size(); i++) {
+            String queryTerm = queryTerms.get(i);
+            Map<Long, Float> termScores = new HashMap<>();
+            addTermScores(termScores, queryTerm, 1f, documentCount);
+            if (i == queryTerms.size() - 1) {
+                postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet().stream()
+                        .limit(MAX_PREFIX_EXPANSIONS)
+                        .forEach(term -> addTermScores(termScores, term, PREFIX_MATCH_FACTOR, documentCount));
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                // Every query term has to match
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((productId, score) -> score + termScores.get(productId));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void addTermScores(Map<Long, Float> termScores, String term, float factor, int documentCount) {
+        Map<Long, Float> termPostings = postings.get(term);
+        if (termPostings == null) {
+            return;
+        }
+        float idf = (float) Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+        termPostings.forEach((productId, weight) ->
+                termScores.merge(productId, weight * idf * factor, Math::max));
+    }
+
+    private void removePostings(Long productId) {
+        IndexedProduct previous = products.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Float> termWeights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            termWeights.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return NON_WORD.splitAsStream(normalized)
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    private static Map<String, Long> sortByCount(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private record IndexedProduct(String category, Set<String> terms) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.merfonteen.productcatalog.search;
+
+import com.merfonteen.productcatalog.config.ProductSearchProperties;
+import com.merfonteen.productcatalog.dto.ProductChangeDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.outbox.ProductOutboxRelay;
+import com.merfonteen.productcatalog.repository.ProductOutboxRepository;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@link ProductSearchIndex} in sync with the products table on every node. Changes are taken from the
+ * relayed outbox feed rather than from local events, so writes handled by other nodes and stock flushes reach
+ * the index too. A relay announcement triggers a catch-up right away; a scheduled catch-up covers missed ones.
+ * <p>
+ * Each catch-up reloads the changed products, so replaying a change is harmless and the index converges on
+ * the current rows. A rebuild fills a separate index, swaps it in and then replays everything relayed since it
+ * started reading, so changes committed during the scan are neither lost nor overwritten by older rows.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndexer implements MessageListener {
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final ProductOutboxRepository productOutboxRepository;
+    private final ProductSearchProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // Feed position the index reflects, -1 until the first rebuild; guarded by syncLock
+    private long indexedPosition = -1;
+
+    public ProductSearchIndexer(ProductSearchIndex productSearchIndex,
+                                ProductRepository productRepository,
+                                ProductOutboxRepository productOutboxRepository,
+                                ProductSearchProperties properties,
+                                TransactionTemplate transactionTemplate,
+                                EntityManager entityManager,
+                                RedisMessageListenerContainer listenerContainer) {
+        this.productSearchIndex = productSearchIndex;
+        this.productRepository = productRepository;
+        this.productOutboxRepository = productOutboxRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        listenerContainer.addMessageListener(this, new ChannelTopic(ProductOutboxRelay.CHANGES_CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        syncLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+            ProductSearchIndex rebuilt = new ProductSearchIndex();
+            // A read-write transaction keeps the scan on the primary, so it is no older than the recorded position
+            Long position = transactionTemplate.execute(status -> {
+                long lastPosition = productOutboxRepository.findLastPosition();
+                try (Stream<Product> products = productRepository.streamAllOrderById()) {
+                    Iterator<Product> iterator = products.iterator();
+                    while (iterator.hasNext()) {
+                        Product product = iterator.next();
+                        rebuilt.index(product.getId(), product.getName(), product.getDescription(), product.getCategory());
+                        entityManager.detach(product);
+                    }
+                }
+                return lastPosition;
+            });
+            productSearchIndex.replaceContents(rebuilt);
+            indexedPosition = position != null ? position : 0;
+            log.info("Indexed {} products for search in {} ms",
+                    productSearchIndex.size(), (System.nanoTime() - startedAt) / 1_000_000);
+            catchUpLocked();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search.catch-up-interval:1s}")
+    public void catchUp() {
+        // A running rebuild or catch-up replays the feed anyway
+        if (!syncLock.tryLock()) {
+            return;
+        }
+        try {
+            if (indexedPosition >= 0) {
+                catchUpLocked();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to apply product changes to the search index, retrying on the next run: {}", ex.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        catchUp();
+    }
+
+    private void catchUpLocked() {
+        int batchSize = properties.getCatchUpBatchSize();
+        List<ProductChangeDto> changes;
+        do {
+            changes = productOutboxRepository.findRelayedAfter(indexedPosition, batchSize);
+            if (changes.isEmpty()) {
+                return;
+            }
+            Set<Long> productIds = new LinkedHashSet<>();
+            changes.forEach(change -> productIds.add(change.getProductId()));
+            transactionTemplate.executeWithoutResult(status -> reindex(productIds));
+            indexedPosition = changes.get(changes.size() - 1).getPosition();
+        } while (changes.size() == batchSize);
+    }
+
+    private void reindex(Set<Long> productIds) {
+        Set<Long> found = new HashSet<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            productSearchIndex.index(product.getId(), product.getName(), product.getDescription(), product.getCategory());
+            found.add(product.getId());
+        }
+        for (Long productId : productIds) {
+            if (!found.contains(productId)) {
+                productSearchIndex.remove(productId);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.merfonteen.productcatalog.service;
+
+import com.merfonteen.productcatalog.dto.ProductBatchOperationDto;
+import com.merfonteen.productcatalog.dto.ProductBatchWriteResponseDto;
+
+import java.util.List;
+
+public interface ProductBatchService {
+    ProductBatchWriteResponseDto applyBatch(List<ProductBatchOperationDto> operations, Long currentUserId);
+}
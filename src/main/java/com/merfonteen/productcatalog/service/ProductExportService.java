@@ -0,0 +1,7 @@
+package com.merfonteen.productcatalog.service;
+
+import java.io.OutputStream;
+
+public interface ProductExportService {
+    void exportProducts(OutputStream outputStream);
+}
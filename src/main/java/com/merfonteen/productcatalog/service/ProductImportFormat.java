@@ -0,0 +1,17 @@
+package com.merfonteen.productcatalog.service;
+
+import org.springframework.http.MediaType;
+
+public enum ProductImportFormat {
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    public static ProductImportFormat fromContentType(String contentType) {
+        return MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))
+                ? CSV
+                : NDJSON;
+    }
+}
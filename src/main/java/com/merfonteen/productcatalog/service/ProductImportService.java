@@ -0,0 +1,9 @@
+package com.merfonteen.productcatalog.service;
+
+import com.merfonteen.productcatalog.dto.ProductImportResultDto;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+    ProductImportResultDto importProducts(InputStream inputStream, ProductImportFormat format, Long currentUserId);
+}
@@ -0,0 +1,7 @@
+package com.merfonteen.productcatalog.service;
+
+import com.merfonteen.productcatalog.dto.ProductSearchResponseDto;
+
+public interface ProductSearchService {
+    ProductSearchResponseDto searchProducts(String query, String category, int page, int size);
+}
@@ -1,17 +1,24 @@
 package com.merfonteen.productcatalog.service;
 
+import com.merfonteen.productcatalog.dto.ProductBatchGetResponseDto;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
 import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
 import com.merfonteen.productcatalog.dto.ProductRequestDto;
 import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.dto.ProductStockResponseDto;
 import com.merfonteen.productcatalog.dto.ProductUpdateDto;
 
 import java.util.List;
 
 public interface ProductService {
     ProductResponseDto getProduct(Long id);
+    ProductBatchGetResponseDto getProductsByIds(List<Long> ids);
     ProductPageResponseDto getProducts(int page, int size);
-    List<ProductResponseDto> getProductsByCategory(String category);
+    ProductPageResponseDto getProductsByCursor(String cursor, int size, boolean includeTotal);
+    ProductPageResponseDto getProductsByCategory(String category, ProductCategoryQueryDto query);
     ProductResponseDto createProduct(ProductRequestDto productRequestDto, Long currentUserId);
     ProductResponseDto updateProduct(Long id, ProductUpdateDto productUpdateDto, Long currentUserId);
     void deleteProduct(Long id);
+    ProductStockResponseDto reserveStock(Long id, int quantity);
+    ProductStockResponseDto releaseStock(Long id, int quantity);
 }
@@ -0,0 +1,8 @@
+package com.merfonteen.productcatalog.service;
+
+import com.merfonteen.productcatalog.dto.ProductStockResponseDto;
+
+public interface ProductStockService {
+    ProductStockResponseDto reserveStock(Long id, int quantity);
+    ProductStockResponseDto releaseStock(Long id, int quantity);
+}
@@ -0,0 +1,327 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.cache.RedisBulkCacheOperations;
+import com.merfonteen.productcatalog.config.ProductBatchProperties;
+import com.merfonteen.productcatalog.dto.ProductBatchItemResultDto;
+import com.merfonteen.productcatalog.dto.ProductBatchOperationDto;
+import com.merfonteen.productcatalog.dto.ProductBatchOperationType;
+import com.merfonteen.productcatalog.dto.ProductBatchWriteResponseDto;
+import com.merfonteen.productcatalog.dto.ProductUpdateDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.exception.ConflictException;
+import com.merfonteen.productcatalog.exception.NotFoundException;
+import com.merfonteen.productcatalog.inventory.RedisStockCounter;
+import com.merfonteen.productcatalog.repository.ProductBatchIdempotencyRepository;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.service.ProductBatchService;
+import com.merfonteen.productcatalog.util.RateLimitedOperation;
+import com.merfonteen.productcatalog.util.RequestRateLimiter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Applies batches of create/update/delete operations in chunked transactions. Each chunk costs a handful of
+ * statements regardless of its size: one idempotency lookup, one product lookup, one name check, JDBC batches
+ * for the writes and one batch insert of the applied idempotency keys. A chunk the database rejects as a whole
+ * (duplicate name, concurrent update, concurrent retry) is re-applied operation by operation to isolate the failure.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ProductBatchServiceImpl implements ProductBatchService {
+
+    private static final String PRODUCT_BY_ID_CACHE = "product-by-id";
+
+    private final ProductRepository productRepository;
+    private final ProductBatchIdempotencyRepository productBatchIdempotencyRepository;
+    private final ProductBatchProperties productBatchProperties;
+    private final RequestRateLimiter requestRateLimiter;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final RedisBulkCacheOperations redisBulkCacheOperations;
+    private final RedisStockCounter redisStockCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public ProductBatchWriteResponseDto applyBatch(List<ProductBatchOperationDto> operations, Long currentUserId) {
+        requestRateLimiter.limitRequestsByUserId(currentUserId, RateLimitedOperation.BATCH_WRITE_PRODUCTS);
+
+        long startedAt = System.nanoTime();
+        BatchOutcome outcome = new BatchOutcome(operations.size());
+        List<IndexedOperation> pending = new ArrayList<>(operations.size());
+        Set<String> idempotencyKeys = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            ProductBatchOperationDto operation = operations.get(i);
+            if (idempotencyKeys.add(operation.getIdempotencyKey())) {
+                pending.add(new IndexedOperation(i, operation));
+            } else {
+                outcome.results[i] = failure(operation, HttpStatus.BAD_REQUEST, "Duplicate idempotency key in batch");
+            }
+        }
+
+        int chunkSize = productBatchProperties.getChunkSize();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            applyChunk(pending.subList(from, Math.min(from + chunkSize, pending.size())), currentUserId, outcome);
+        }
+
+        List<ProductBatchItemResultDto> results = Arrays.asList(outcome.results);
+        long replayed = results.stream().filter(ProductBatchItemResultDto::isReplayed).count();
+        long failed = results.stream().filter(result -> result.getStatus() >= 400).count();
+        long durationMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Applied batch of {} operations for user {} in {} ms: {} replayed, {} failed",
+                operations.size(), currentUserId, durationMillis, replayed, failed);
+
+        return ProductBatchWriteResponseDto.builder()
+                .results(results)
+                .appliedOperations((int) (results.size() - replayed - failed))
+                .replayedOperations((int) replayed)
+                .failedOperations((int) failed)
+                .durationMillis(durationMillis)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.batch.purge-interval:10m}")
+    public void purgeExpiredIdempotencyKeys() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(productBatchProperties.getIdempotencyRetention());
+        int purged = productBatchIdempotencyRepository.deleteAppliedBefore(cutoff);
+        if (purged > 0) {
+            log.debug("Purged {} batch idempotency keys applied before {}", purged, cutoff);
+        }
+    }
+
+    private void applyChunk(List<IndexedOperation> chunk, Long userId, BatchOutcome outcome) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> applyInTransaction(chunk, userId));
+        } catch (RuntimeException ex) {
+            if (chunk.size() == 1) {
+                IndexedOperation operation = chunk.get(0);
+                outcome.results[operation.index()] = failure(operation.operation(), ex);
+            } else {
+                log.debug("Batch chunk of {} operations failed, applying them one by one: {}", chunk.size(), ex.getMessage());
+                chunk.forEach(operation -> applyChunk(List.of(operation), userId, outcome));
+            }
+            return;
+        } finally {
+            entityManager.clear();
+        }
+        outcome.add(result);
+
+        // The chunk has committed, so its products are evicted now instead of staying stale until the batch ends
+        if (!result.changedProductIds.isEmpty()) {
+            redisBulkCacheOperations.evictAll(Map.of(PRODUCT_BY_ID_CACHE, result.changedProductIds));
+        }
+        productCacheInvalidator.evictCategories(result.changedCategories.toArray(String[]::new));
+    }
+
+    private ChunkResult applyInTransaction(List<IndexedOperation> chunk, Long userId) {
+        ChunkResult result = new ChunkResult();
+        Map<String, ProductBatchItemResultDto> alreadyApplied = productBatchIdempotencyRepository.findApplied(userId,
+                chunk.stream().map(operation -> operation.operation().getIdempotencyKey()).toList());
+
+        List<IndexedOperation> toApply = new ArrayList<>(chunk.size());
+        for (IndexedOperation operation : chunk) {
+            ProductBatchItemResultDto replayed = alreadyApplied.get(operation.operation().getIdempotencyKey());
+            if (replayed != null) {
+                result.results.put(operation.index(), replayed);
+            } else {
+                toApply.add(operation);
+            }
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        List<Long> productIds = toApply.stream()
+                .map(operation -> operation.operation().getProductId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (!productIds.isEmpty()) {
+            productRepository.findAllById(productIds).forEach(product -> products.put(product.getId(), product));
+        }
+        Set<String> names = new HashSet<>();
+        for (IndexedOperation operation : toApply) {
+            ProductUpdateDto dto = operation.operation().getProduct();
+            if (dto != null && dto.getName() != null) {
+                names.add(dto.getName());
+            }
+        }
+        Set<String> takenNames = names.isEmpty() ? new HashSet<>() : new HashSet<>(productRepository.findExistingNames(names));
+
+        // Operations see each other in request order, so a name freed by a delete or rename can be taken again
+        boolean namesFreed = false;
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> created = new ArrayList<>();
+        List<IndexedOperation> createOperations = new ArrayList<>();
+        for (IndexedOperation indexed : toApply) {
+            ProductBatchOperationDto operation = indexed.operation();
+            ProductUpdateDto dto = operation.getProduct();
+            switch (operation.getType()) {
+                case CREATE -> {
+                    if (dto == null || dto.getName() == null || dto.getPrice() == null) {
+                        result.fail(indexed, HttpStatus.BAD_REQUEST, "Name and price are required to create a product");
+                    } else if (!takenNames.add(dto.getName())) {
+                        result.fail(indexed, HttpStatus.BAD_REQUEST, duplicateName(dto.getName()));
+                    } else {
+                        created.add(Product.builder()
+                                .name(dto.getName())
+                                .description(dto.getDescription())
+                                .price(dto.getPrice())
+                                .category(dto.getCategory())
+                                .stock(dto.getStock())
+                                .createdAt(now)
+                                .build());
+                        createOperations.add(indexed);
+                    }
+                }
+                case UPDATE -> {
+                    Product product = operation.getProductId() != null ? products.get(operation.getProductId()) : null;
+                    if (product == null) {
+                        result.fail(indexed, HttpStatus.NOT_FOUND, "Product not found by id: " + operation.getProductId());
+                    } else if (dto == null) {
+                        result.fail(indexed, HttpStatus.BAD_REQUEST, "Product fields are required to update a product");
+                    } else if (dto.getStock() != null && redisStockCounter.isManaged(product.getId())) {
+                        result.fail(indexed, HttpStatus.CONFLICT, String.format(
+                                "Stock of product %d is managed by a write-behind counter, use reserve/release instead", product.getId()));
+                    } else if (dto.getName() != null && !dto.getName().equals(product.getName()) && !takenNames.add(dto.getName())) {
+                        result.fail(indexed, HttpStatus.BAD_REQUEST, duplicateName(dto.getName()));
+                    } else {
+                        if (dto.getName() != null && !dto.getName().equals(product.getName())) {
+                            namesFreed |= takenNames.remove(product.getName());
+                        }
+                        String previousCategory = product.getCategory();
+                        Optional.ofNullable(dto.getName()).ifPresent(product::setName);
+                        Optional.ofNullable(dto.getDescription()).ifPresent(product::setDescription);
+                        Optional.ofNullable(dto.getCategory()).ifPresent(product::setCategory);
+                        Optional.ofNullable(dto.getStock()).ifPresent(product::setStock);
+                        Optional.ofNullable(dto.getPrice()).ifPresent(product::setPrice);
+                        product.setUpdatedAt(now);
+                        result.apply(indexed, HttpStatus.OK, product, previousCategory);
+                        result.events.add(ProductChangedEvent.upserted(product));
+                    }
+                }
+                case DELETE -> {
+                    Product product = operation.getProductId() != null ? products.remove(operation.getProductId()) : null;
+                    if (product == null) {
+                        result.fail(indexed, HttpStatus.NOT_FOUND, "Product not found by id: " + operation.getProductId());
+                    } else {
+                        productRepository.delete(product);
+                        namesFreed |= takenNames.remove(product.getName());
+                        result.apply(indexed, HttpStatus.NO_CONTENT, product, null);
+                        result.events.add(ProductChangedEvent.deleted(product));
+                    }
+                }
+            }
+        }
+
+        if (namesFreed && !created.isEmpty()) {
+            // Hibernate flushes inserts before updates and deletes, which would trip the unique index on a reused name
+            productRepository.flush();
+        }
+        productRepository.saveAll(created);
+        productRepository.flush();
+        for (int i = 0; i < created.size(); i++) {
+            result.apply(createOperations.get(i), HttpStatus.CREATED, created.get(i), null);
+            result.events.add(ProductChangedEvent.upserted(created.get(i)));
+        }
+
+        productBatchIdempotencyRepository.saveApplied(userId, result.applied, now);
+        result.events.forEach(applicationEventPublisher::publishEvent);
+        return result;
+    }
+
+    private static String duplicateName(String name) {
+        return String.format("Product with name '%s' already exists", name);
+    }
+
+    private static ProductBatchItemResultDto failure(ProductBatchOperationDto operation, HttpStatus status, String error) {
+        return ProductBatchItemResultDto.builder()
+                .idempotencyKey(operation.getIdempotencyKey())
+                .type(operation.getType())
+                .productId(operation.getProductId())
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    private static ProductBatchItemResultDto failure(ProductBatchOperationDto operation, RuntimeException ex) {
+        if (ex instanceof BadRequestException) {
+            return failure(operation, HttpStatus.BAD_REQUEST, ex.getMessage());
+        } else if (ex instanceof NotFoundException) {
+            return failure(operation, HttpStatus.NOT_FOUND, ex.getMessage());
+        } else if (ex instanceof ConflictException || ex instanceof OptimisticLockingFailureException) {
+            return failure(operation, HttpStatus.CONFLICT, "The product was modified concurrently, retry with fresh data.");
+        } else if (ex instanceof DataIntegrityViolationException) {
+            return failure(operation, HttpStatus.BAD_REQUEST, "The operation conflicts with existing data, e.g. a duplicate product name.");
+        }
+        log.warn("Batch operation '{}' failed unexpectedly", operation.getIdempotencyKey(), ex);
+        return failure(operation, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error occurred.");
+    }
+
+    private record IndexedOperation(int index, ProductBatchOperationDto operation) {
+    }
+
+    private static class ChunkResult {
+        private final Map<Integer, ProductBatchItemResultDto> results = new HashMap<>();
+        private final List<ProductBatchItemResultDto> applied = new ArrayList<>();
+        private final List<ProductChangedEvent> events = new ArrayList<>();
+        private final Set<Long> changedProductIds = new HashSet<>();
+        private final Set<String> changedCategories = new HashSet<>();
+
+        private void fail(IndexedOperation operation, HttpStatus status, String error) {
+            results.put(operation.index(), failure(operation.operation(), status, error));
+        }
+
+        private void apply(IndexedOperation operation, HttpStatus status, Product product, String previousCategory) {
+            ProductBatchItemResultDto result = ProductBatchItemResultDto.builder()
+                    .idempotencyKey(operation.operation().getIdempotencyKey())
+                    .type(operation.operation().getType())
+                    .productId(product.getId())
+                    .status(status.value())
+                    .build();
+            results.put(operation.index(), result);
+            applied.add(result);
+            changedProductIds.add(product.getId());
+            if (previousCategory != null) {
+                changedCategories.add(previousCategory);
+            }
+            if (product.getCategory() != null) {
+                changedCategories.add(product.getCategory());
+            }
+        }
+    }
+
+    private static class BatchOutcome {
+        private final ProductBatchItemResultDto[] results;
+
+        private BatchOutcome(int size) {
+            this.results = new ProductBatchItemResultDto[size];
+        }
+
+        private void add(ChunkResult chunkResult) {
+            chunkResult.results.forEach((index, result) -> results[index] = result);
+        }
+    }
+}
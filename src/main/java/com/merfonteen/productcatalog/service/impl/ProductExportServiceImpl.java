@@ -0,0 +1,67 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.mapper.ProductMapper;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.service.ProductExportService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter ndjsonWriter;
+
+    public ProductExportServiceImpl(ProductRepository productRepository,
+                                    ProductMapper productMapper,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.entityManager = entityManager;
+        this.ndjsonWriter = objectMapper.writerFor(ProductResponseDto.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportProducts(OutputStream outputStream) {
+        long exported = 0;
+        try (Stream<Product> products = productRepository.streamAllOrderById();
+             SequenceWriter sequenceWriter = ndjsonWriter.writeValues(outputStream)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                sequenceWriter.write(productMapper.toDto(product));
+                // Detach as we go so the persistence context does not grow with the catalog
+                entityManager.detach(product);
+                exported++;
+            }
+            sequenceWriter.flush();
+            if (exported > 0) {
+                outputStream.write('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write product export", ex);
+        }
+        log.info("Exported {} products", exported);
+    }
+}
@@ -0,0 +1,269 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.dto.ProductImportErrorDto;
+import com.merfonteen.productcatalog.dto.ProductImportResultDto;
+import com.merfonteen.productcatalog.dto.ProductRequestDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.service.ProductImportFormat;
+import com.merfonteen.productcatalog.service.ProductImportService;
+import com.merfonteen.productcatalog.util.RateLimitedOperation;
+import com.merfonteen.productcatalog.util.RequestRateLimiter;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final ProductRepository productRepository;
+    private final RequestRateLimiter requestRateLimiter;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ProductImportServiceImpl(ObjectMapper objectMapper,
+                                    ProductRepository productRepository,
+                                    RequestRateLimiter requestRateLimiter,
+                                    ProductCacheInvalidator productCacheInvalidator,
+                                    Validator validator,
+                                    TransactionTemplate transactionTemplate,
+                                    EntityManager entityManager,
+                                    ApplicationEventPublisher applicationEventPublisher) {
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.productRepository = productRepository;
+        this.requestRateLimiter = requestRateLimiter;
+        this.productCacheInvalidator = productCacheInvalidator;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public ProductImportResultDto importProducts(InputStream inputStream, ProductImportFormat format, Long currentUserId) {
+        requestRateLimiter.limitRequestsByUserId(currentUserId, RateLimitedOperation.IMPORT_PRODUCTS);
+
+        long startedAt = System.nanoTime();
+        ImportReport report = new ImportReport();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            if (format == ProductImportFormat.CSV) {
+                readCsv(reader, report, chunk);
+            } else {
+                readNdjson(reader, report, chunk);
+            }
+            importChunk(chunk, report);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read import stream", ex);
+        }
+
+        productCacheInvalidator.evictCategories(report.categories.toArray(String[]::new));
+
+        long durationMillis = Math.max((System.nanoTime() - startedAt) / 1_000_000, 1);
+        log.info("Imported {} of {} products in {} ms", report.importedRows, report.totalRows, durationMillis);
+
+        return ProductImportResultDto.builder()
+                .totalRows(report.totalRows)
+                .importedRows(report.importedRows)
+                .failedRows(report.failedRows)
+                .errors(report.errors)
+                .errorsTruncated(report.failedRows > report.errors.size())
+                .durationMillis(durationMillis)
+                .rowsPerSecond(report.totalRows * 1000.0 / durationMillis)
+                .build();
+    }
+
+    private void readNdjson(BufferedReader reader, ImportReport report, List<ImportRow> chunk) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(ProductRequestDto.class);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            report.lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            report.totalRows++;
+            ProductRequestDto row;
+            try {
+                row = rowReader.readValue(line);
+            } catch (JsonProcessingException ex) {
+                report.fail(report.lineNumber, null, "Malformed row: " + ex.getOriginalMessage());
+                continue;
+            }
+            addRow(new ImportRow(report.lineNumber, row), chunk, report);
+        }
+    }
+
+    /**
+     * Reads CSV record by record rather than line by line: a quoted field may contain line breaks.
+     */
+    private void readCsv(BufferedReader reader, ImportReport report, List<ImportRow> chunk) throws IOException {
+        MappingIterator<ProductRequestDto> rows;
+        try {
+            rows = csvMapper.readerFor(ProductRequestDto.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("CSV import requires a header row");
+        }
+
+        try (rows) {
+            while (rows.hasNextValue()) {
+                // The parser stands at the first line of the next record, however many lines it spans
+                report.lineNumber = rows.getCurrentLocation().getLineNr();
+                report.totalRows++;
+                ProductRequestDto row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonProcessingException ex) {
+                    report.fail(report.lineNumber, null, "Malformed row: " + ex.getOriginalMessage());
+                    continue;
+                }
+                addRow(new ImportRow(report.lineNumber, row), chunk, report);
+            }
+        }
+    }
+
+    private void addRow(ImportRow row, List<ImportRow> chunk, ImportReport report) {
+        Set<ConstraintViolation<ProductRequestDto>> violations = validator.validate(row.product());
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            report.fail(row.line(), row.product().getName(), message);
+            return;
+        }
+
+        chunk.add(row);
+        if (chunk.size() == CHUNK_SIZE) {
+            importChunk(chunk, report);
+            chunk.clear();
+        }
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingNames = new HashSet<>(productRepository.findExistingNames(
+                chunk.stream().map(row -> row.product().getName()).collect(Collectors.toSet())));
+
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            ProductRequestDto dto = row.product();
+            if (!existingNames.add(dto.getName())) {
+                report.fail(row.line(), dto.getName(),
+                        String.format("Product with name '%s' already exists", dto.getName()));
+                continue;
+            }
+            accepted.add(row);
+        }
+        insert(accepted, report);
+    }
+
+    private void insert(List<ImportRow> rows, ImportReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = rows.stream()
+                .map(row -> Product.builder()
+                        .name(row.product().getName())
+                        .description(row.product().getDescription())
+                        .price(row.product().getPrice())
+                        .category(row.product().getCategory())
+                        .stock(row.product().getStock())
+                        .createdAt(now)
+                        .build())
+                .toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.saveAll(products);
+                products.forEach(product -> applicationEventPublisher.publishEvent(ProductChangedEvent.upserted(product)));
+            });
+            report.importedRows += products.size();
+            products.stream()
+                    .map(Product::getCategory)
+                    .filter(Objects::nonNull)
+                    .forEach(report.categories::add);
+        } catch (RuntimeException ex) {
+            if (rows.size() == 1) {
+                ImportRow row = rows.get(0);
+                report.fail(row.line(), row.product().getName(), "Insert failed: " + ex.getMessage());
+            } else {
+                // Typically a name inserted concurrently; only that row should fail, so insert them one by one
+                log.debug("Import chunk of {} rows failed, inserting them one by one: {}", rows.size(), ex.getMessage());
+                rows.forEach(row -> insert(List.of(row), report));
+            }
+        } finally {
+            // Keep the persistence context from growing with every chunk when it outlives the transaction
+            entityManager.clear();
+        }
+    }
+
+    private record ImportRow(long line, ProductRequestDto product) {
+    }
+
+    private static class ImportReport {
+        private long lineNumber;
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+        private final Set<String> categories = new HashSet<>();
+
+        private void fail(long line, String name, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportErrorDto(line, name, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.dto.ProductSearchResponseDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.mapper.ProductMapper;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.search.ProductSearchHits;
+import com.merfonteen.productcatalog.search.ProductSearchIndex;
+import com.merfonteen.productcatalog.service.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    @Override
+    public ProductSearchResponseDto searchProducts(String query, String category, int page, int size) {
+        if(query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if(page < 0 || size < 1) {
+            throw new BadRequestException("Page must not be negative and page size must be positive");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        // Pages past the last hit come back empty with the real totals
+        ProductSearchHits hits = productSearchIndex.search(query, category, (long) page * size, size);
+
+        // The index only ranks; product data comes from the database so results are never staler than a commit
+        Map<Long, Product> productsById = productRepository.findAllById(hits.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductResponseDto> products = hits.productIds().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toDto)
+                .toList();
+
+        return ProductSearchResponseDto.builder()
+                .products(products)
+                .currentPage(page)
+                .totalPages((int) ((hits.totalHits() + size - 1) / size))
+                .totalHits(hits.totalHits())
+                .categoryCounts(hits.categoryCounts())
+                .build();
+    }
+}
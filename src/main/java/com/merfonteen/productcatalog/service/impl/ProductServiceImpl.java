@@ -1,31 +1,54 @@
 package com.merfonteen.productcatalog.service.impl;
 
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.cache.RedisBulkCacheOperations;
+import com.merfonteen.productcatalog.dto.ProductBatchGetResponseDto;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
 import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
 import com.merfonteen.productcatalog.dto.ProductRequestDto;
 import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.dto.ProductStockResponseDto;
 import com.merfonteen.productcatalog.dto.ProductUpdateDto;
 import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
 import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.exception.ConflictException;
 import com.merfonteen.productcatalog.exception.NotFoundException;
+import com.merfonteen.productcatalog.inventory.RedisStockCounter;
+import com.merfonteen.productcatalog.jdbc.PrimaryReads;
 import com.merfonteen.productcatalog.mapper.ProductMapper;
 import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.repository.ProductSpecifications;
+import com.merfonteen.productcatalog.search.ProductNameFilter;
 import com.merfonteen.productcatalog.service.ProductService;
+import com.merfonteen.productcatalog.util.ProductCursor;
+import com.merfonteen.productcatalog.util.RateLimitedOperation;
 import com.merfonteen.productcatalog.util.RequestRateLimiter;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -36,18 +59,60 @@ public class ProductServiceImpl implements ProductService {
     private final ProductMapper productMapper;
     private final ProductRepository productRepository;
     private final RequestRateLimiter requestRateLimiter;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final RedisBulkCacheOperations redisBulkCacheOperations;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RedisStockCounter redisStockCounter;
+    private final ProductNameFilter productNameFilter;
 
-    @Cacheable(value = "product-by-id", key = "#id")
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String PRODUCT_BY_ID_CACHE = "product-by-id";
+    private static final String NAME_UNIQUE_INDEX = "ux_products_name";
+
+    @Cacheable(value = "product-by-id", key = "#id", sync = true)
+    @Transactional(readOnly = true)
     @Override
     public ProductResponseDto getProduct(Long id) {
-        Product product = findProductByIdOrThrowException(id);
+        // Cached for every node, so it must not come from a lagging replica
+        Product product = PrimaryReads.call(() -> findProductByIdOrThrowException(id));
         return productMapper.toDto(product);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public ProductBatchGetResponseDto getProductsByIds(List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Object, Object> cached = redisBulkCacheOperations.getAll(PRODUCT_BY_ID_CACHE, uniqueIds);
+
+        List<Long> cacheMisses = uniqueIds.stream()
+                .filter(id -> !cached.containsKey(id))
+                .toList();
+        Map<Long, ProductResponseDto> loaded = cacheMisses.isEmpty()
+                ? Map.of()
+                : redisBulkCacheOperations.loadAll(PRODUCT_BY_ID_CACHE, cacheMisses, this::loadProducts);
+
+        List<ProductResponseDto> products = new ArrayList<>(uniqueIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            ProductResponseDto product = cached.containsKey(id) ? (ProductResponseDto) cached.get(id) : loaded.get(id);
+            if(product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return ProductBatchGetResponseDto.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public ProductPageResponseDto getProducts(int page, int size) {
-        if(size > 100) {
-            size = 100;
+        if(size > MAX_PAGE_SIZE) {
+            size = MAX_PAGE_SIZE;
         }
 
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
@@ -63,20 +128,75 @@ public class ProductServiceImpl implements ProductService {
                 .build();
     }
 
-    @Cacheable(value = "products-by-category", key = "#category")
+    @Transactional(readOnly = true)
+    @Override
+    public ProductPageResponseDto getProductsByCursor(String cursor, int size, boolean includeTotal) {
+        if(size > MAX_PAGE_SIZE) {
+            size = MAX_PAGE_SIZE;
+        }
+        if(size < 1) {
+            throw new BadRequestException("Page size must be positive");
+        }
+
+        // One extra row tells whether a next page exists without counting the table
+        Limit limit = Limit.of(size + 1);
+        List<Product> rows = (cursor == null || cursor.isBlank())
+                ? productRepository.findFirstKeysetPage(limit)
+                : findKeysetPageAfter(ProductCursor.decode(cursor), limit);
+
+        boolean hasNext = rows.size() > size;
+        List<Product> pageContent = hasNext ? rows.subList(0, size) : rows;
+
+        ProductPageResponseDto.ProductPageResponseDtoBuilder response = ProductPageResponseDto.builder()
+                .products(productMapper.toDtos(pageContent))
+                .isLastPage(!hasNext)
+                .nextCursor(hasNext ? ProductCursor.of(pageContent.get(size - 1)).encode() : null);
+
+        if(includeTotal) {
+            long totalElements = productRepository.count();
+            response.totalElements(totalElements)
+                    .totalPages((int) ((totalElements + size - 1) / size));
+        }
+        return response.build();
+    }
+
+    @Cacheable(value = "products-by-category",
+            key = "T(com.merfonteen.productcatalog.cache.ProductCacheInvalidator).categoryKeyPrefix(#category) + #query.toCacheKeySegment()",
+            sync = true)
+    @Transactional(readOnly = true)
     @Override
-    public List<ProductResponseDto> getProductsByCategory(String category) {
-        List<Product> productsByCategory = productRepository.findAllByCategory(category);
-        return productMapper.toDtos(productsByCategory);
+    public ProductPageResponseDto getProductsByCategory(String category, ProductCategoryQueryDto query) {
+        if(query.getPage() < 0 || query.getSize() < 1) {
+            throw new BadRequestException("Page must not be negative and page size must be positive");
+        }
+        if(query.getMinPrice() != null && query.getMaxPrice() != null
+                && query.getMinPrice().compareTo(query.getMaxPrice()) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+
+        Sort sort = Sort.by(query.getDirection(), query.getSortBy().getProperty(), "id");
+        PageRequest pageRequest = PageRequest.of(query.getPage(), Math.min(query.getSize(), ProductCategoryQueryDto.MAX_PAGE_SIZE), sort);
+        Page<Product> productsPage = PrimaryReads.call(() -> productRepository.findAll(
+                ProductSpecifications.inCategory(category, query), pageRequest));
+
+        return ProductPageResponseDto.builder()
+                .products(productMapper.toDtos(productsPage.getContent()))
+                .currentPage(productsPage.getNumber())
+                .totalElements(productsPage.getTotalElements())
+                .totalPages(productsPage.getTotalPages())
+                .isLastPage(productsPage.isLast())
+                .build();
     }
 
     @Transactional
     @Override
     public ProductResponseDto createProduct(ProductRequestDto productRequestDto, Long currentUserId) {
-        Optional<Product> existingProduct = productRepository.findByName(productRequestDto.getName());
-        if(existingProduct.isPresent()) {
-            throw new BadRequestException(
-                    String.format("Product with name '%s' already exists", productRequestDto.getName()));
+        requestRateLimiter.limitRequestsByUserId(currentUserId, RateLimitedOperation.CREATE_PRODUCT);
+
+        // Insert straight away and let the unique index catch duplicates; only names the filter may have seen are looked up
+        if(productNameFilter.mightExist(productRequestDto.getName())
+                && productRepository.existsByName(productRequestDto.getName())) {
+            throw duplicateName(productRequestDto.getName());
         }
 
         Product.ProductBuilder productBuilder = Product.builder()
@@ -88,23 +208,35 @@ public class ProductServiceImpl implements ProductService {
         Optional.ofNullable(productRequestDto.getStock()).ifPresent(productBuilder::stock);
         Optional.ofNullable(productRequestDto.getCategory()).ifPresent(productBuilder::category);
 
-        requestRateLimiter.limitRequestsByUserId(currentUserId);
-
         Product newProduct = productBuilder.build();
-        Product savedProduct = productRepository.save(newProduct);
-        log.info("Successfully saved to database product: '{}'", savedProduct);
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.saveAndFlush(newProduct);
+        } catch (DataIntegrityViolationException ex) {
+            if(isNameUniqueViolation(ex)) {
+                throw duplicateName(productRequestDto.getName());
+            }
+            throw ex;
+        }
+        log.info("Product with id {} was created", savedProduct.getId());
+        productCacheInvalidator.evictCategories(savedProduct.getCategory());
+        applicationEventPublisher.publishEvent(ProductChangedEvent.upserted(savedProduct));
 
         return productMapper.toDto(savedProduct);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "product-by-id", key = "#id"),
-            @CacheEvict(value = "products-by-category", allEntries = true)
-    })
+    @CacheEvict(value = "product-by-id", key = "#id")
     @Transactional
     @Override
     public ProductResponseDto updateProduct(Long id, ProductUpdateDto productUpdateDto, Long currentUserId) {
+        requestRateLimiter.limitRequestsByUserId(currentUserId, RateLimitedOperation.UPDATE_PRODUCT);
+        if(productUpdateDto.getStock() != null && redisStockCounter.isManaged(id)) {
+            throw new ConflictException(String.format(
+                    "Stock of product %d is managed by a write-behind counter, use reserve/release instead", id));
+        }
+
         Product productToUpdate = findProductByIdOrThrowException(id);
+        String previousCategory = productToUpdate.getCategory();
 
         Optional.ofNullable(productUpdateDto.getName()).ifPresent(productToUpdate::setName);
         Optional.ofNullable(productUpdateDto.getDescription()).ifPresent(productToUpdate::setDescription);
@@ -113,24 +245,81 @@ public class ProductServiceImpl implements ProductService {
         Optional.ofNullable(productUpdateDto.getPrice()).ifPresent(productToUpdate::setPrice);
         productToUpdate.setUpdatedAt(LocalDateTime.now());
 
-        requestRateLimiter.limitRequestsByUserId(currentUserId);
-
         Product updatedProduct = productRepository.save(productToUpdate);
         log.info("Product with id {} was updated successfully", updatedProduct.getId());
+        productCacheInvalidator.evictCategories(previousCategory, updatedProduct.getCategory());
+        applicationEventPublisher.publishEvent(ProductChangedEvent.upserted(updatedProduct));
 
         return productMapper.toDto(updatedProduct);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "product-by-id", key = "#id"),
-            @CacheEvict(value = "products-by-category", allEntries = true)
-    })
+    @CacheEvict(value = "product-by-id", key = "#id")
     @Transactional
     @Override
     public void deleteProduct(Long id) {
         Product productToDelete = findProductByIdOrThrowException(id);
         productRepository.delete(productToDelete);
         log.info("Product with id {} has been deleted", id);
+        productCacheInvalidator.evictCategories(productToDelete.getCategory());
+        applicationEventPublisher.publishEvent(ProductChangedEvent.deleted(productToDelete));
+    }
+
+    @CacheEvict(value = "product-by-id", key = "#id")
+    @Transactional
+    @Override
+    public ProductStockResponseDto reserveStock(Long id, int quantity) {
+        int updated = productRepository.reserveStock(id, quantity, LocalDateTime.now());
+        Product product = findProductByIdOrThrowException(id);
+        if(updated == 0 && product.getStock() == null) {
+            throw new ConflictException("Stock is not tracked for product " + id);
+        }
+        if(updated == 0) {
+            throw new ConflictException(String.format(
+                    "Not enough stock for product %d: requested %d, available %s", id, quantity, product.getStock()));
+        }
+        // Listings only need to change when the product goes out of stock
+        if(product.getStock() == 0) {
+            productCacheInvalidator.evictCategories(product.getCategory());
+        }
+        applicationEventPublisher.publishEvent(ProductChangedEvent.upserted(product));
+        return new ProductStockResponseDto(id, product.getStock());
+    }
+
+    @CacheEvict(value = "product-by-id", key = "#id")
+    @Transactional
+    @Override
+    public ProductStockResponseDto releaseStock(Long id, int quantity) {
+        int updated = productRepository.releaseStock(id, quantity, LocalDateTime.now());
+        Product product = findProductByIdOrThrowException(id);
+        if(updated == 0) {
+            throw new ConflictException("Stock is not tracked for product " + id);
+        }
+        if(product.getStock() == quantity) {
+            productCacheInvalidator.evictCategories(product.getCategory());
+        }
+        applicationEventPublisher.publishEvent(ProductChangedEvent.upserted(product));
+        return new ProductStockResponseDto(id, product.getStock());
+    }
+
+    private Map<Long, ProductResponseDto> loadProducts(Collection<Long> ids) {
+        Map<Long, ProductResponseDto> loaded = new HashMap<>();
+        PrimaryReads.call(() -> productRepository.findAllById(ids))
+                .forEach(product -> loaded.put(product.getId(), productMapper.toDto(product)));
+        return loaded;
+    }
+
+    private static BadRequestException duplicateName(String name) {
+        return new BadRequestException(String.format("Product with name '%s' already exists", name));
+    }
+
+    private static boolean isNameUniqueViolation(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(NAME_UNIQUE_INDEX);
+    }
+
+    private List<Product> findKeysetPageAfter(ProductCursor cursor, Limit limit) {
+        return productRepository.findKeysetPageAfter(cursor.createdAt(), cursor.id(), limit);
     }
 
     private Product findProductByIdOrThrowException(Long id) {
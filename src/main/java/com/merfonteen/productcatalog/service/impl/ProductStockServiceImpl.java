@@ -0,0 +1,59 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.merfonteen.productcatalog.dto.ProductStockResponseDto;
+import com.merfonteen.productcatalog.exception.ConflictException;
+import com.merfonteen.productcatalog.inventory.RedisStockCounter;
+import com.merfonteen.productcatalog.inventory.StockAdjustment;
+import com.merfonteen.productcatalog.inventory.StockWriteBehindFlusher;
+import com.merfonteen.productcatalog.service.ProductService;
+import com.merfonteen.productcatalog.service.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Routes stock changes of products flagged hot to their Redis counter, which is flushed to the database in
+ * batches, and everything else to the conditional update in {@link ProductService}.
+ */
+@RequiredArgsConstructor
+@Service
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private final ProductService productService;
+    private final RedisStockCounter redisStockCounter;
+    private final StockWriteBehindFlusher stockWriteBehindFlusher;
+
+    @Override
+    public ProductStockResponseDto reserveStock(Long id, int quantity) {
+        if(!redisStockCounter.isManaged(id)) {
+            return productService.reserveStock(id, quantity);
+        }
+        StockAdjustment adjustment = adjustCounter(id, -quantity);
+        if(adjustment.status() == StockAdjustment.Status.INSUFFICIENT_STOCK) {
+            throw new ConflictException(String.format(
+                    "Not enough stock for product %d: requested %d, available %d", id, quantity, adjustment.stock()));
+        }
+        return new ProductStockResponseDto(id, Math.toIntExact(adjustment.stock()));
+    }
+
+    @Override
+    public ProductStockResponseDto releaseStock(Long id, int quantity) {
+        if(!redisStockCounter.isManaged(id)) {
+            return productService.releaseStock(id, quantity);
+        }
+        StockAdjustment adjustment = adjustCounter(id, quantity);
+        return new ProductStockResponseDto(id, Math.toIntExact(adjustment.stock()));
+    }
+
+    private StockAdjustment adjustCounter(Long id, long delta) {
+        StockAdjustment adjustment = redisStockCounter.adjust(id, delta);
+        if(adjustment.status() != StockAdjustment.Status.NOT_LOADED) {
+            return adjustment;
+        }
+        stockWriteBehindFlusher.seedCounter(id);
+        adjustment = redisStockCounter.adjust(id, delta);
+        if(adjustment.status() == StockAdjustment.Status.NOT_LOADED) {
+            throw new ConflictException("Stock of product " + id + " is being loaded, retry shortly");
+        }
+        return adjustment;
+    }
+}
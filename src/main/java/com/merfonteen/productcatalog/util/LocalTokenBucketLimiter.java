@@ -0,0 +1,59 @@
+package com.merfonteen.productcatalog.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.merfonteen.productcatalog.config.RateLimitProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process first stage of the rate limiter. Each bucket is a single atomic "theoretical arrival time",
+ * i.e. the same GCRA formulation of a token bucket as the Redis script, updated with a CAS loop.
+ * Because a node only ever sees a subset of a user's traffic, a local rejection implies a cluster-wide one.
+ */
+@Component
+public class LocalTokenBucketLimiter {
+
+    private final boolean enabled;
+    private final Cache<String, AtomicLong> buckets;
+
+    public LocalTokenBucketLimiter(RateLimitProperties rateLimitProperties) {
+        RateLimitProperties.Local local = rateLimitProperties.getLocal();
+        this.enabled = local.isEnabled();
+        // Once idle for a whole period a bucket is full again, so evicting it loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(local.getMaximumBuckets())
+                .expireAfterAccess(rateLimitProperties.getLongestPeriod())
+                .build();
+    }
+
+    /**
+     * @return {@link Duration#ZERO} when a token was taken, otherwise how long until one is available
+     */
+    public Duration tryAcquire(String key, long emissionIntervalMillis, long toleranceMillis) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+
+        AtomicLong theoreticalArrivalTime = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long newArrivalTime = Math.max(current, now) + emissionIntervalMillis;
+            long allowAt = newArrivalTime - toleranceMillis;
+            if (now < allowAt) {
+                return Duration.ofMillis(allowAt - now);
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, newArrivalTime)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    public long estimatedBucketCount() {
+        return buckets.estimatedSize();
+    }
+}
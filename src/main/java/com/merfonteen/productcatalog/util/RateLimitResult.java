@@ -0,0 +1,6 @@
+package com.merfonteen.productcatalog.util;
+
+import java.time.Duration;
+
+public record RateLimitResult(boolean allowed, long limit, long remaining, Duration resetAfter, Duration retryAfter) {
+}
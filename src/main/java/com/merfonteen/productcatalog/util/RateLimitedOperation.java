@@ -0,0 +1,8 @@
+package com.merfonteen.productcatalog.util;
+
+public enum RateLimitedOperation {
+    CREATE_PRODUCT,
+    UPDATE_PRODUCT,
+    IMPORT_PRODUCTS,
+    BATCH_WRITE_PRODUCTS
+}
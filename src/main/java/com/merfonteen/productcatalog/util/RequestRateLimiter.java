@@ -1,31 +1,127 @@
 package com.merfonteen.productcatalog.util;
 
+import com.merfonteen.productcatalog.config.RateLimitProperties;
 import com.merfonteen.productcatalog.exception.TooManyRequestsException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
-@RequiredArgsConstructor
 @Component
 public class RequestRateLimiter {
 
+    public static final String RATE_LIMIT_RESULT_ATTRIBUTE = RequestRateLimiter.class.getName() + ".RESULT";
+
     private final StringRedisTemplate stringRedisTemplate;
+    private final RateLimitProperties rateLimitProperties;
+    private final LocalTokenBucketLimiter localTokenBucketLimiter;
+    private final Map<RateLimitedOperation, OperationMeters> meters = new EnumMap<>(RateLimitedOperation.class);
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> rateLimitScript =
+            RedisScript.of(new ClassPathResource("scripts/gcra_rate_limit.lua"), List.class);
+
+    public RequestRateLimiter(StringRedisTemplate stringRedisTemplate,
+                              RateLimitProperties rateLimitProperties,
+                              LocalTokenBucketLimiter localTokenBucketLimiter,
+                              MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.rateLimitProperties = rateLimitProperties;
+        this.localTokenBucketLimiter = localTokenBucketLimiter;
+        for (RateLimitedOperation operation : RateLimitedOperation.values()) {
+            meters.put(operation, new OperationMeters(operation, meterRegistry));
+        }
+    }
+
+    public RateLimitResult limitRequestsByUserId(Long userId, RateLimitedOperation operation) {
+        RateLimitProperties.Limit limit = rateLimitProperties.forOperation(operation);
+        long periodMillis = limit.getPeriod().toMillis();
+        long emissionIntervalMillis = Math.max(periodMillis / limit.getLimit(), 1);
+
+        String cacheKey = "limit::product::" + operation.name().toLowerCase() + "::user::" + userId;
+        OperationMeters operationMeters = meters.get(operation);
+
+        // Shed obvious overages locally; Redis stays the cluster-wide authority for everything else
+        Duration localRetryAfter = localTokenBucketLimiter.tryAcquire(cacheKey, emissionIntervalMillis, periodMillis);
+        if(!localRetryAfter.isZero()) {
+            operationMeters.localDenied.increment();
+            return reject(new RateLimitResult(false, limit.getLimit(), 0, limit.getPeriod(), localRetryAfter));
+        }
+
+        long startedAt = System.nanoTime();
+        List<?> reply = stringRedisTemplate.execute(rateLimitScript, List.of(cacheKey),
+                String.valueOf(emissionIntervalMillis), String.valueOf(periodMillis));
+        operationMeters.redisLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
 
-    private final Long MAX_REQUESTS = 10L;
-    private final Duration DURATION = Duration.ofMinutes(1);
+        RateLimitResult result = new RateLimitResult(
+                toLong(reply.get(0)) == 1,
+                limit.getLimit(),
+                toLong(reply.get(1)),
+                Duration.ofMillis(toLong(reply.get(3))),
+                Duration.ofMillis(toLong(reply.get(2))));
+        if(!result.allowed()) {
+            operationMeters.redisDenied.increment();
+            return reject(result);
+        }
+        operationMeters.allowed.increment();
+        exposeToCurrentRequest(result);
+        return result;
+    }
+
+    private static RateLimitResult reject(RateLimitResult result) {
+        exposeToCurrentRequest(result);
+        throw new TooManyRequestsException(
+                "You have exceeded the allowed number of actions, max: " + result.limit(), result.retryAfter());
+    }
+
+    private static void exposeToCurrentRequest(RateLimitResult result) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes != null) {
+            requestAttributes.setAttribute(RATE_LIMIT_RESULT_ATTRIBUTE, result, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
 
-    public void limitRequestsByUserId(Long userId) {
-        String cacheKey = "limit::product::actions::user::" + userId;
-        Long counter = stringRedisTemplate.opsForValue().increment(cacheKey);
+    /**
+     * Meters are resolved once per operation so the hot path only increments, without tag lookups.
+     */
+    private static final class OperationMeters {
+        private final Counter allowed;
+        private final Counter localDenied;
+        private final Counter redisDenied;
+        private final Timer redisLatency;
 
-        if(counter > 0) {
-            stringRedisTemplate.expire(cacheKey, DURATION);
+        private OperationMeters(RateLimitedOperation operation, MeterRegistry registry) {
+            String name = operation.name().toLowerCase();
+            this.allowed = decisions(registry, name, "allowed", "redis");
+            this.localDenied = decisions(registry, name, "denied", "local");
+            this.redisDenied = decisions(registry, name, "denied", "redis");
+            this.redisLatency = Timer.builder("rate.limiter.redis.latency")
+                    .description("Round trip of the rate limit script")
+                    .tag("operation", name)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(1))
+                    .register(registry);
         }
 
-        if(counter > MAX_REQUESTS) {
-            throw new TooManyRequestsException("You have exceeded the allowed number of actions, max: " + MAX_REQUESTS);
+        private static Counter decisions(MeterRegistry registry, String operation, String result, String decidedBy) {
+            return Counter.builder("rate.limiter.decisions")
+                    .tags("operation", operation, "result", result, "decided.by", decidedBy)
+                    .register(registry);
         }
     }
 }
@@ -0,0 +1,127 @@
+package com.merfonteen.productcatalog.warmup;
+
+import com.merfonteen.productcatalog.config.CacheWarmupProperties;
+import com.merfonteen.productcatalog.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the hottest products and category pages ranked by {@link HotKeyTracker} when the node starts, so
+ * the first minutes after a deploy do not fall through to the database. Runs in the background with
+ * {@code catalog.warmup.concurrency} loads at a time; {@link CacheWarmupHealthIndicator} keeps the node out of
+ * the readiness group until the warm-up finished or gave up.
+ */
+@Slf4j
+@Component
+public class CacheWarmer {
+
+    public enum State {
+        PENDING, RUNNING, FINISHED, TIMED_OUT, FAILED, DISABLED
+    }
+
+    private final HotKeyTracker hotKeyTracker;
+    private final ProductService productService;
+    private final CacheWarmupProperties properties;
+    private final AtomicInteger totalLoads = new AtomicInteger();
+    private final AtomicInteger completedLoads = new AtomicInteger();
+    private final AtomicInteger failedLoads = new AtomicInteger();
+    private volatile State state = State.PENDING;
+
+    public CacheWarmer(HotKeyTracker hotKeyTracker, ProductService productService, CacheWarmupProperties properties) {
+        this.hotKeyTracker = hotKeyTracker;
+        this.productService = productService;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            state = State.DISABLED;
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isSettled() {
+        return state != State.PENDING && state != State.RUNNING;
+    }
+
+    public int getTotalLoads() {
+        return totalLoads.get();
+    }
+
+    public int getCompletedLoads() {
+        return completedLoads.get();
+    }
+
+    public int getFailedLoads() {
+        return failedLoads.get();
+    }
+
+    void warmUp() {
+        state = State.RUNNING;
+        long startedAt = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getConcurrency(),
+                new CustomizableThreadFactory("cache-warmup-"));
+        try {
+            List<Long> productIds = hotKeyTracker.topProductIds(properties.getProducts());
+            List<HotCategoryQuery> categoryPages = hotKeyTracker.topCategoryPages(properties.getCategoryPages());
+
+            List<Runnable> loads = new ArrayList<>();
+            for (int from = 0; from < productIds.size(); from += properties.getBatchSize()) {
+                List<Long> batch = productIds.subList(from, Math.min(from + properties.getBatchSize(), productIds.size()));
+                loads.add(() -> productService.getProductsByIds(batch));
+            }
+            for (HotCategoryQuery page : categoryPages) {
+                loads.add(() -> productService.getProductsByCategory(page.category(), page.query()));
+            }
+            totalLoads.set(loads.size());
+            loads.forEach(load -> executor.execute(() -> run(load)));
+
+            executor.shutdown();
+            if (executor.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                state = State.FINISHED;
+            } else {
+                state = State.TIMED_OUT;
+            }
+            log.info("Cache warm-up {} after {} ms: {} products and {} category pages, {} of {} loads done, {} failed",
+                    state.name().toLowerCase(), (System.nanoTime() - startedAt) / 1_000_000, productIds.size(),
+                    categoryPages.size(), completedLoads.get(), totalLoads.get(), failedLoads.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            state = State.FAILED;
+        } catch (RuntimeException ex) {
+            // A cold node is still better than no node
+            log.warn("Cache warm-up failed, serving with cold caches: {}", ex.getMessage());
+            state = State.FAILED;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(Runnable load) {
+        try {
+            load.run();
+            completedLoads.incrementAndGet();
+        } catch (RuntimeException ex) {
+            failedLoads.incrementAndGet();
+            log.debug("Cache warm-up load failed: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.merfonteen.productcatalog.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service while {@link CacheWarmer} is still loading, so that the readiness group, and with it the
+ * load balancer, only sends traffic to a node once its caches are warm.
+ */
+@RequiredArgsConstructor
+@Component("cacheWarmup")
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = cacheWarmer.isSettled() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("state", cacheWarmer.getState())
+                .withDetail("completedLoads", cacheWarmer.getCompletedLoads())
+                .withDetail("failedLoads", cacheWarmer.getFailedLoads())
+                .withDetail("totalLoads", cacheWarmer.getTotalLoads())
+                .build();
+    }
+}
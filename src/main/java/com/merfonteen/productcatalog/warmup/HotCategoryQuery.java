@@ -0,0 +1,6 @@
+package com.merfonteen.productcatalog.warmup;
+
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+
+public record HotCategoryQuery(String category, ProductCategoryQueryDto query) {
+}
@@ -0,0 +1,151 @@
+package com.merfonteen.productcatalog.warmup;
+
+import com.merfonteen.productcatalog.config.CacheWarmupProperties;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ranks products and category pages by how often they are read, across all nodes. Reads only bump
+ * in-memory counters; every {@code catalog.warmup.flush-interval} the counts go to two Redis sorted sets in
+ * one pipelined round trip, which are trimmed to {@code max-ranked-keys} and halved every
+ * {@code decay-interval} so the ranking follows shifting traffic.
+ */
+@Slf4j
+@Component
+public class HotKeyTracker {
+
+    static final String PRODUCTS_KEY = "hotkeys::product";
+    static final String CATEGORY_PAGES_KEY = "hotkeys::category";
+
+    private static final String DECAY_LOCK_KEY = "lock::hotkeys::decay";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheWarmupProperties properties;
+    private volatile Map<String, LongAdder> productCounts = new ConcurrentHashMap<>();
+    private volatile Map<String, LongAdder> categoryPageCounts = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(StringRedisTemplate stringRedisTemplate, CacheWarmupProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+    }
+
+    public void recordProduct(Long id) {
+        if (properties.isTrackingEnabled()) {
+            record(productCounts, String.valueOf(id));
+        }
+    }
+
+    public void recordCategoryPage(String category, ProductCategoryQueryDto query) {
+        if (properties.isTrackingEnabled()) {
+            record(categoryPageCounts, query.toCacheKeySegment() + "|" + category);
+        }
+    }
+
+    public List<Long> topProductIds(int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (String member : top(PRODUCTS_KEY, limit)) {
+            try {
+                ids.add(Long.valueOf(member));
+            } catch (NumberFormatException ex) {
+                log.debug("Skipping malformed hot product key '{}'", member);
+            }
+        }
+        return ids;
+    }
+
+    public List<HotCategoryQuery> topCategoryPages(int limit) {
+        List<HotCategoryQuery> pages = new ArrayList<>();
+        for (String member : top(CATEGORY_PAGES_KEY, limit)) {
+            // Seven query fields, then the category, which may itself contain '|'
+            String[] parts = member.split("\\|", 8);
+            try {
+                pages.add(new HotCategoryQuery(parts[7],
+                        ProductCategoryQueryDto.fromCacheKeySegment(String.join("|", List.of(parts).subList(0, 7)))));
+            } catch (RuntimeException ex) {
+                log.debug("Skipping malformed hot category page key '{}'", member);
+            }
+        }
+        return pages;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.warmup.flush-interval:10s}")
+    public void flush() {
+        Map<String, LongAdder> products = productCounts;
+        Map<String, LongAdder> categoryPages = categoryPageCounts;
+        if (products.isEmpty() && categoryPages.isEmpty()) {
+            return;
+        }
+        productCounts = new ConcurrentHashMap<>();
+        categoryPageCounts = new ConcurrentHashMap<>();
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                increment(stringConnection, PRODUCTS_KEY, products);
+                increment(stringConnection, CATEGORY_PAGES_KEY, categoryPages);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            log.debug("Could not flush hot key counts, dropping them: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.warmup.decay-interval:1h}", initialDelayString = "${catalog.warmup.decay-interval:1h}")
+    public void decay() {
+        try {
+            // Every node runs this, but only one per interval halves the scores
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(DECAY_LOCK_KEY, "1", properties.getDecayInterval().multipliedBy(9).dividedBy(10));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return;
+            }
+            for (String key : List.of(PRODUCTS_KEY, CATEGORY_PAGES_KEY)) {
+                stringRedisTemplate.opsForZSet().unionAndStore(key, List.of(), key, Aggregate.SUM, Weights.of(0.5));
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Could not decay hot key counts: {}", ex.getMessage());
+        }
+    }
+
+    private void record(Map<String, LongAdder> counts, String member) {
+        LongAdder counter = counts.get(member);
+        if (counter == null) {
+            if (counts.size() >= properties.getMaxTrackedKeys()) {
+                // The long tail past the cap waits for the next flush interval
+                return;
+            }
+            counter = counts.computeIfAbsent(member, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    private void increment(StringRedisConnection connection, String key, Map<String, LongAdder> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        counts.forEach((member, count) -> connection.zIncrBy(key, count.sum(), member));
+        connection.zRemRange(key, 0, -(properties.getMaxRankedKeys() + 1L));
+    }
+
+    private Set<String> top(String key, int limit) {
+        if (limit <= 0) {
+            return Set.of();
+        }
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(key, 0, limit - 1);
+        return members != null ? members : Set.of();
+    }
+}
@@ -0,0 +1,5 @@
+UPDATE products SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+ALTER TABLE products ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX idx_products_created_at_id ON products(created_at DESC, id DESC);
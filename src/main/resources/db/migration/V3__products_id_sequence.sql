@@ -0,0 +1,4 @@
+CREATE SEQUENCE products_id_seq START WITH 1 INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so start one allocation above the current max id
+ALTER SEQUENCE products_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM products);
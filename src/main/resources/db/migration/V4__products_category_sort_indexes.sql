@@ -0,0 +1,7 @@
+-- Category listings are filtered by category and ordered by one of these columns (id breaks ties)
+CREATE INDEX idx_products_category_created_at ON products(category, created_at, id);
+CREATE INDEX idx_products_category_price ON products(category, price, id);
+CREATE INDEX idx_products_category_name ON products(category, name, id);
+
+-- Covered by the leading column of the indexes above
+DROP INDEX idx_products_category;
@@ -0,0 +1,2 @@
+-- Optimistic locking for the read-modify-write update path
+ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
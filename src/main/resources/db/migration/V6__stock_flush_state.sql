@@ -0,0 +1,9 @@
+-- Last write-behind stock batch applied to products, so a batch replayed after a crash is not applied twice
+CREATE TABLE stock_flush_state
+(
+    id            INTEGER PRIMARY KEY,
+    last_batch_id VARCHAR(36) NOT NULL
+);
+
+INSERT INTO stock_flush_state (id, last_batch_id)
+VALUES (1, '');
@@ -0,0 +1,3 @@
+-- Names were only checked for uniqueness by the application, which two concurrent creates can both pass
+DROP INDEX idx_products_name;
+CREATE UNIQUE INDEX ux_products_name ON products (name);
@@ -0,0 +1,13 @@
+-- Outcome of every applied batch operation, so a retried batch replays its results instead of applying twice
+CREATE TABLE product_batch_idempotency
+(
+    user_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    operation       VARCHAR(16)  NOT NULL,
+    product_id      BIGINT,
+    status          INTEGER      NOT NULL,
+    created_at      TIMESTAMP    NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_product_batch_idempotency_created_at ON product_batch_idempotency (created_at);
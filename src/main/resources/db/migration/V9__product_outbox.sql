@@ -0,0 +1,25 @@
+-- Product changes, written in the same transaction as the change and relayed to consumers in commit order
+CREATE TABLE product_outbox
+(
+    id            BIGINT PRIMARY KEY AUTO_INCREMENT,
+    product_id    BIGINT       NOT NULL,
+    change_type   VARCHAR(16)  NOT NULL,
+    name          VARCHAR(255),
+    category      VARCHAR(255),
+    created_at    TIMESTAMP    NOT NULL,
+    feed_position BIGINT,
+    relayed_at    TIMESTAMP
+);
+
+CREATE INDEX idx_product_outbox_relayed_at_id ON product_outbox (relayed_at, id);
+CREATE UNIQUE INDEX ux_product_outbox_feed_position ON product_outbox (feed_position);
+
+-- Last feed position handed out by the relay; its row lock also serializes relays across nodes
+CREATE TABLE product_outbox_state
+(
+    id            INTEGER PRIMARY KEY,
+    last_position BIGINT NOT NULL
+);
+
+INSERT INTO product_outbox_state (id, last_position)
+VALUES (1, 0);
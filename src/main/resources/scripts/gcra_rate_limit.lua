@@ -0,0 +1,27 @@
+-- Generic cell rate algorithm: one key per client holding its theoretical arrival time (TAT) in ms.
+-- KEYS[1] - limiter key
+-- ARGV[1] - emission interval in ms (period / limit)
+-- ARGV[2] - burst tolerance in ms (period)
+-- Returns {allowed (1/0), remaining, retry_after_ms, reset_after_ms}
+
+local emission_interval = tonumber(ARGV[1])
+local tolerance = tonumber(ARGV[2])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local tat = tonumber(redis.call('GET', KEYS[1]))
+if not tat or tat < now then
+    tat = now
+end
+
+local new_tat = tat + emission_interval
+local allow_at = new_tat - tolerance
+
+if now < allow_at then
+    return {0, 0, allow_at - now, tat - now}
+end
+
+redis.call('SET', KEYS[1], new_tat, 'PX', new_tat - now)
+local remaining = math.floor((now - allow_at) / emission_interval)
+return {1, remaining, 0, new_tat - now}
@@ -0,0 +1,22 @@
+-- Applies a stock delta to a write-behind counter and records it for the next flush.
+-- KEYS[1] - stock counter of the product
+-- KEYS[2] - hash of pending (not yet flushed) deltas by product id
+-- ARGV[1] - product id
+-- ARGV[2] - delta, negative to reserve
+-- Returns {status, stock}: 1 applied, 0 not enough stock (nothing changed), -1 counter not loaded
+
+local stock = tonumber(redis.call('GET', KEYS[1]))
+if not stock then
+    return {-1, 0}
+end
+
+local delta = tonumber(ARGV[2])
+if stock + delta < 0 then
+    return {0, stock}
+end
+
+redis.call('HINCRBY', KEYS[2], ARGV[1], delta)
+if delta < 0 then
+    return {1, redis.call('DECRBY', KEYS[1], -delta)}
+end
+return {1, redis.call('INCRBY', KEYS[1], delta)}
@@ -0,0 +1,24 @@
+-- Moves pending deltas aside as a batch to flush, unless an earlier batch was never completed.
+-- KEYS[1] - hash of pending deltas by product id
+-- KEYS[2] - hash of deltas being flushed
+-- KEYS[3] - id of the batch being flushed
+-- ARGV[1] - id for a new batch
+-- Returns {batch id, product id, delta, product id, delta, ...}, or {} when there is nothing to flush
+
+if redis.call('EXISTS', KEYS[2]) == 0 then
+    if redis.call('EXISTS', KEYS[1]) == 0 then
+        return {}
+    end
+    redis.call('RENAME', KEYS[1], KEYS[2])
+    redis.call('DEL', KEYS[3])
+end
+
+local batch_id = redis.call('GET', KEYS[3])
+if not batch_id then
+    batch_id = ARGV[1]
+    redis.call('SET', KEYS[3], batch_id)
+end
+
+local batch = redis.call('HGETALL', KEYS[2])
+table.insert(batch, 1, batch_id)
+return batch
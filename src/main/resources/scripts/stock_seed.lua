@@ -0,0 +1,17 @@
+-- Seeds a missing write-behind counter from the database stock plus deltas that have not reached it yet.
+-- KEYS[1] - stock counter of the product
+-- KEYS[2] - hash of pending deltas by product id
+-- KEYS[3] - set of product ids with a counter
+-- ARGV[1] - product id
+-- ARGV[2] - stock currently stored in the database
+-- Returns the counter value
+
+local stock = tonumber(redis.call('GET', KEYS[1]))
+if stock then
+    return stock
+end
+
+stock = tonumber(ARGV[2]) + (tonumber(redis.call('HGET', KEYS[2], ARGV[1])) or 0)
+redis.call('SET', KEYS[1], stock)
+redis.call('SADD', KEYS[3], ARGV[1])
+return stock
@@ -0,0 +1,79 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.merfonteen.productcatalog.cache.ReactiveRedisCacheOperations;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.dto.ProductSortField;
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.exception.NotFoundException;
+import com.merfonteen.productcatalog.repository.ReactiveProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductServiceImplTest {
+
+    @Mock
+    private ReactiveProductRepository reactiveProductRepository;
+
+    @Mock
+    private ReactiveRedisCacheOperations reactiveRedisCacheOperations;
+
+    @InjectMocks
+    private ReactiveProductServiceImpl reactiveProductService;
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testGetProduct_ShouldLoadThroughCacheAndFailForUnknownId() {
+        when(reactiveRedisCacheOperations.get(eq("product-by-id"), eq(999L), eq(ProductResponseDto.class), any()))
+                .thenAnswer(invocation -> ((Supplier<Mono<ProductResponseDto>>) invocation.getArgument(3)).get());
+        when(reactiveProductRepository.findById(999L)).thenReturn(Mono.empty());
+
+        assertThrows(NotFoundException.class, () -> reactiveProductService.getProduct(999L).block());
+    }
+
+    @Test
+    void testGetProducts_ShouldBuildPageMetadata() {
+        ProductResponseDto product = ProductResponseDto.builder().id(1L).name("Lamp").build();
+        when(reactiveProductRepository.findPage(2, 2L)).thenReturn(Flux.just(product));
+        when(reactiveProductRepository.count()).thenReturn(Mono.just(3L));
+
+        ProductPageResponseDto page = reactiveProductService.getProducts(1, 2).block();
+
+        assertThat(page.getProducts()).containsExactly(product);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getIsLastPage()).isTrue();
+    }
+
+    @Test
+    void testGetProductsByCategory_ShouldRejectInvertedPriceRangeWithoutTouchingCache() {
+        ProductCategoryQueryDto query = ProductCategoryQueryDto.builder()
+                .page(0)
+                .size(20)
+                .sortBy(ProductSortField.PRICE)
+                .direction(Sort.Direction.ASC)
+                .minPrice(BigDecimal.TEN)
+                .maxPrice(BigDecimal.ONE)
+                .build();
+
+        assertThrows(BadRequestException.class,
+                () -> reactiveProductService.getProductsByCategory("Electronics", query).block());
+
+        verifyNoInteractions(reactiveRedisCacheOperations, reactiveProductRepository);
+    }
+}
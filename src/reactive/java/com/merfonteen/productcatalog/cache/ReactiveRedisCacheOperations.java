@@ -0,0 +1,82 @@
+package com.merfonteen.productcatalog.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking read-through access to the Redis caches the blocking service fills and evicts. Keys,
+ * values and TTLs are encoded exactly like the {@link RedisCache} of the same name, so both kinds of nodes
+ * share entries, and concurrent misses for the same key on this node share one load.
+ */
+@Slf4j
+@Profile("reactive")
+@Component
+public class ReactiveRedisCacheOperations {
+
+    private final ReactiveRedisTemplate<ByteBuffer, ByteBuffer> reactiveRedisTemplate;
+    private final RedisCacheManager redisCacheManager;
+    private final ConcurrentMap<String, Mono<?>> inFlightLoads = new ConcurrentHashMap<>();
+
+    public ReactiveRedisCacheOperations(ReactiveRedisTemplate<ByteBuffer, ByteBuffer> reactiveRedisTemplate,
+                                        RedisCacheManager redisCacheManager) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.redisCacheManager = redisCacheManager;
+    }
+
+    public <T> Mono<T> get(String cacheName, Object key, Class<T> type, Supplier<Mono<T>> loader) {
+        RedisCacheConfiguration configuration = configuration(cacheName);
+        String cacheKey = configuration.usePrefix()
+                ? configuration.getKeyPrefixFor(cacheName) + key
+                : String.valueOf(key);
+
+        return reactiveRedisTemplate.opsForValue().get(configuration.getKeySerializationPair().write(cacheKey))
+                .mapNotNull(rawValue -> configuration.getValueSerializationPair().read(rawValue))
+                .filter(type::isInstance)
+                .map(type::cast)
+                .onErrorResume(ex -> {
+                    log.warn("Reading '{}' from Redis failed, loading it instead: {}", cacheKey, ex.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> load(configuration, key, cacheKey, loader)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> load(RedisCacheConfiguration configuration, Object key, String cacheKey, Supplier<Mono<T>> loader) {
+        return (Mono<T>) inFlightLoads.computeIfAbsent(cacheKey, k -> loader.get()
+                .flatMap(value -> put(configuration, key, cacheKey, value).thenReturn(value))
+                .doFinally(signal -> inFlightLoads.remove(k))
+                .cache());
+    }
+
+    private Mono<Boolean> put(RedisCacheConfiguration configuration, Object key, String cacheKey, Object value) {
+        Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        ByteBuffer rawKey = configuration.getKeySerializationPair().write(cacheKey);
+        ByteBuffer rawValue = configuration.getValueSerializationPair().write(value);
+        Mono<Boolean> write = ttl.isZero() || ttl.isNegative()
+                ? reactiveRedisTemplate.opsForValue().set(rawKey, rawValue)
+                : reactiveRedisTemplate.opsForValue().set(rawKey, rawValue, ttl);
+        return write.onErrorResume(ex -> {
+            log.warn("Writing '{}' to Redis failed: {}", cacheKey, ex.getMessage());
+            return Mono.just(false);
+        });
+    }
+
+    private RedisCacheConfiguration configuration(String cacheName) {
+        if (!(redisCacheManager.getCache(cacheName) instanceof RedisCache redisCache)) {
+            throw new IllegalArgumentException("No Redis cache named " + cacheName);
+        }
+        return redisCache.getCacheConfiguration();
+    }
+}
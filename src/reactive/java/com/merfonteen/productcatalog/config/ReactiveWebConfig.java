@@ -0,0 +1,34 @@
+package com.merfonteen.productcatalog.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wiring for read-only edge nodes started with the {@code reactive} profile.
+ */
+@Profile("reactive")
+@Configuration
+public class ReactiveWebConfig {
+
+    /**
+     * Tomcat is on the classpath for the servlet deployment and would otherwise be picked as the reactive
+     * server too; Netty serves many idle keep-alive connections from a handful of event-loop threads.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<ByteBuffer, ByteBuffer> byteBufferReactiveRedisTemplate(
+            ReactiveRedisConnectionFactory reactiveRedisConnectionFactory) {
+        return new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, RedisSerializationContext.byteBuffer());
+    }
+}
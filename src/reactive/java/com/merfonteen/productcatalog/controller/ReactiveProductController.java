@@ -0,0 +1,67 @@
+package com.merfonteen.productcatalog.controller;
+
+import com.merfonteen.productcatalog.cache.ProductEtags;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.service.ReactiveProductService;
+import com.merfonteen.productcatalog.warmup.HotKeyTracker;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Read API of edge nodes started with the {@code reactive} profile; same paths and parameters as the
+ * read endpoints of {@link ProductController}, which serves everything else.
+ */
+@Profile("reactive")
+@RequestMapping("/api/v1/products")
+@RestController
+public class ReactiveProductController {
+
+    private final ReactiveProductService reactiveProductService;
+    private final HotKeyTracker hotKeyTracker;
+
+    public ReactiveProductController(ReactiveProductService reactiveProductService, HotKeyTracker hotKeyTracker) {
+        this.reactiveProductService = reactiveProductService;
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponseDto>> getProduct(@PathVariable("id") Long id) {
+        hotKeyTracker.recordProduct(id);
+        return reactiveProductService.getProduct(id)
+                .map(product -> ResponseEntity.ok().eTag(ProductEtags.of(product)).body(product));
+    }
+
+    @GetMapping("/category/{category}")
+    public Mono<ResponseEntity<ProductPageResponseDto>> getProductsByCategory(@PathVariable("category") String category,
+                                                              @RequestParam(required = false, defaultValue = "0") int page,
+                                                              @RequestParam(required = false, defaultValue = "20") int size,
+                                                              @RequestParam(required = false, defaultValue = "createdAt") String sort,
+                                                              @RequestParam(required = false, defaultValue = "desc") String direction,
+                                                              @RequestParam(required = false) BigDecimal minPrice,
+                                                              @RequestParam(required = false) BigDecimal maxPrice,
+                                                              @RequestParam(required = false, defaultValue = "false") boolean inStock) {
+        return Mono.fromSupplier(() -> ProductCategoryQueryDto.fromRequest(page, size, sort, direction, minPrice, maxPrice, inStock))
+                .doOnNext(query -> hotKeyTracker.recordCategoryPage(category, query))
+                .flatMap(query -> reactiveProductService.getProductsByCategory(category, query))
+                .map(ReactiveProductController::withEtag);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<ProductPageResponseDto>> getProducts(@RequestParam(required = false, defaultValue = "0") int page,
+                                                                    @RequestParam(required = false, defaultValue = "10") int size) {
+        return reactiveProductService.getProducts(page, size)
+                .map(ReactiveProductController::withEtag);
+    }
+
+    private static ResponseEntity<ProductPageResponseDto> withEtag(ProductPageResponseDto page) {
+        return ResponseEntity.ok()
+                .eTag(ProductEtags.of(page))
+                .body(page);
+    }
+}
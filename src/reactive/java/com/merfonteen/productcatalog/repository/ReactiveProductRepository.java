@@ -0,0 +1,112 @@
+package com.merfonteen.productcatalog.repository;
+
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.dto.ProductSortField;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking reads of the products table over R2DBC, mirroring the queries {@link ProductRepository}
+ * runs for the same listings.
+ */
+@Profile("reactive")
+@RequiredArgsConstructor
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS = "id, name, description, price, category, stock, created_at, updated_at";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<ProductResponseDto> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toDto)
+                .one();
+    }
+
+    public Flux<ProductResponseDto> findPage(int limit, long offset) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products ORDER BY created_at DESC LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM products")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<ProductResponseDto> findPageInCategory(String category, ProductCategoryQueryDto query, int limit, long offset) {
+        Map<String, Object> binds = new LinkedHashMap<>();
+        String direction = query.getDirection().name();
+        String sql = "SELECT " + COLUMNS + " FROM products WHERE " + categoryFilter(category, query, binds)
+                + " ORDER BY " + column(query.getSortBy()) + " " + direction + ", id " + direction
+                + " LIMIT :limit OFFSET :offset";
+        binds.put("limit", limit);
+        binds.put("offset", offset);
+        return databaseClient.sql(sql)
+                .bindValues(binds)
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> countInCategory(String category, ProductCategoryQueryDto query) {
+        Map<String, Object> binds = new LinkedHashMap<>();
+        return databaseClient.sql("SELECT COUNT(*) FROM products WHERE " + categoryFilter(category, query, binds))
+                .bindValues(binds)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static String categoryFilter(String category, ProductCategoryQueryDto query, Map<String, Object> binds) {
+        StringBuilder where = new StringBuilder("category = :category");
+        binds.put("category", category);
+        if (query.getMinPrice() != null) {
+            where.append(" AND price >= :minPrice");
+            binds.put("minPrice", query.getMinPrice());
+        }
+        if (query.getMaxPrice() != null) {
+            where.append(" AND price <= :maxPrice");
+            binds.put("maxPrice", query.getMaxPrice());
+        }
+        if (query.isInStock()) {
+            where.append(" AND stock > 0");
+        }
+        return where.toString();
+    }
+
+    private static String column(ProductSortField sortField) {
+        return switch (sortField) {
+            case PRICE -> "price";
+            case CREATED_AT -> "created_at";
+            case NAME -> "name";
+        };
+    }
+
+    private static ProductResponseDto toDto(Readable row) {
+        return ProductResponseDto.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .category(row.get("category", String.class))
+                .stock(row.get("stock", Integer.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.merfonteen.productcatalog.service;
+
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductService {
+    Mono<ProductResponseDto> getProduct(Long id);
+    Mono<ProductPageResponseDto> getProducts(int page, int size);
+    Mono<ProductPageResponseDto> getProductsByCategory(String category, ProductCategoryQueryDto query);
+}
@@ -0,0 +1,85 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.cache.ReactiveRedisCacheOperations;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.exception.NotFoundException;
+import com.merfonteen.productcatalog.repository.ReactiveProductRepository;
+import com.merfonteen.productcatalog.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of the read methods of {@link ProductServiceImpl}, for nodes running the
+ * {@code reactive} profile. It reads and fills the same Redis cache entries; writes, and therefore cache
+ * eviction, stay with the blocking service.
+ */
+@Profile("reactive")
+@RequiredArgsConstructor
+@Service
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final ReactiveRedisCacheOperations reactiveRedisCacheOperations;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Override
+    public Mono<ProductResponseDto> getProduct(Long id) {
+        return reactiveRedisCacheOperations.get("product-by-id", id, ProductResponseDto.class,
+                () -> reactiveProductRepository.findById(id)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Product not found by id: " + id))));
+    }
+
+    @Override
+    public Mono<ProductPageResponseDto> getProducts(int page, int size) {
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        if(page < 0 || pageSize < 1) {
+            return Mono.error(new BadRequestException("Page must not be negative and page size must be positive"));
+        }
+        return toPage(reactiveProductRepository.findPage(pageSize, (long) page * pageSize),
+                reactiveProductRepository.count(), page, pageSize);
+    }
+
+    @Override
+    public Mono<ProductPageResponseDto> getProductsByCategory(String category, ProductCategoryQueryDto query) {
+        if(query.getPage() < 0 || query.getSize() < 1) {
+            return Mono.error(new BadRequestException("Page must not be negative and page size must be positive"));
+        }
+        if(query.getMinPrice() != null && query.getMaxPrice() != null
+                && query.getMinPrice().compareTo(query.getMaxPrice()) > 0) {
+            return Mono.error(new BadRequestException("minPrice must not be greater than maxPrice"));
+        }
+
+        int pageSize = Math.min(query.getSize(), MAX_PAGE_SIZE);
+        String cacheKey = ProductCacheInvalidator.categoryKeyPrefix(category) + query.toCacheKeySegment();
+        return reactiveRedisCacheOperations.get("products-by-category", cacheKey, ProductPageResponseDto.class,
+                () -> toPage(
+                        reactiveProductRepository.findPageInCategory(category, query, pageSize, (long) query.getPage() * pageSize),
+                        reactiveProductRepository.countInCategory(category, query),
+                        query.getPage(), pageSize));
+    }
+
+    private static Mono<ProductPageResponseDto> toPage(Flux<ProductResponseDto> rows, Mono<Long> total, int page, int size) {
+        return Mono.zip(rows.collectList(), total).map(result -> {
+            List<ProductResponseDto> products = result.getT1();
+            long totalElements = result.getT2();
+            int totalPages = (int) ((totalElements + size - 1) / size);
+            return ProductPageResponseDto.builder()
+                    .products(products)
+                    .currentPage(page)
+                    .totalElements(totalElements)
+                    .totalPages(totalPages)
+                    .isLastPage(page + 1 >= totalPages)
+                    .build();
+        });
+    }
+}
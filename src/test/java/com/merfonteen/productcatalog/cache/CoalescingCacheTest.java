@@ -0,0 +1,173 @@
+package com.merfonteen.productcatalog.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoalescingCacheTest {
+
+    private ConcurrentMapCache delegate;
+    private final List<Runnable> refreshTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapCache("product-by-id");
+    }
+
+    @Test
+    void testGetWithLoader_ShouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        CoalescingCache cache = new CoalescingCache(delegate, null, Duration.ofSeconds(1), null, refreshTasks::add);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                releaseLoader.await(5, TimeUnit.SECONDS);
+                return "product";
+            })));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            Thread.sleep(50);
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("product");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(delegate.get(1L).get()).isEqualTo("product");
+        assertThat(cache.getLoadSuccessCount()).isEqualTo(1);
+        assertThat(cache.getCoalescedCount() + cache.getHitCount()).isEqualTo(7);
+    }
+
+    @Test
+    void testEvict_ShouldKeepLoadInFlightFromWritingBackStaleValue() throws Exception {
+        CoalescingCache cache = new CoalescingCache(delegate, null, Duration.ofSeconds(1), null, refreshTasks::add);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loaderStarted.countDown();
+            releaseLoader.await(5, TimeUnit.SECONDS);
+            return "stale";
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.evict(1L);
+        releaseLoader.countDown();
+
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        assertThat(delegate.get(1L)).isNull();
+    }
+
+    @Test
+    void testGetWithLoader_ShouldRefreshInBackgroundOnceEntryIsDue() throws Exception {
+        // Deadlines are kept for twice refreshAfterWrite, which leaves a cold JVM enough slack to hit the window
+        CoalescingCache cache = new CoalescingCache(delegate, null, Duration.ofSeconds(1), Duration.ofMillis(500), refreshTasks::add);
+        cache.put(1L, "v1");
+        assertThat(cache.get(1L, () -> "early")).isEqualTo("v1");
+        assertThat(refreshTasks).isEmpty();
+
+        Thread.sleep(550);
+
+        assertThat(cache.get(1L, () -> "v2")).isEqualTo("v1");
+        assertThat(cache.get(1L, () -> "v3")).isEqualTo("v1");
+        assertThat(refreshTasks).hasSize(1);
+
+        refreshTasks.get(0).run();
+
+        assertThat(delegate.get(1L).get()).isEqualTo("v2");
+    }
+
+    @Test
+    void testDiscardPendingLoadsByPrefix_ShouldKeepPageLoadFromWritingBackStaleValue() throws Exception {
+        CoalescingCache cache = new CoalescingCache(delegate, null, Duration.ofSeconds(1), null, refreshTasks::add);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get("Books|0|20", () -> {
+            loaderStarted.countDown();
+            releaseLoader.await(5, TimeUnit.SECONDS);
+            return "stale page";
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.discardPendingLoadsByPrefix("Books|");
+        releaseLoader.countDown();
+
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("stale page");
+        assertThat(delegate.get("Books|0|20")).isNull();
+        // The next reader loads afresh instead of joining the discarded load
+        assertThat(cache.get("Books|0|20", () -> "fresh page")).isEqualTo("fresh page");
+        assertThat(delegate.get("Books|0|20").get()).isEqualTo("fresh page");
+    }
+
+    @Test
+    void testBeginBulkLoad_ShouldReportKeysEvictedDuringTheLoad() {
+        CoalescingCache cache = new CoalescingCache(delegate, null, Duration.ofSeconds(1), null, refreshTasks::add);
+
+        try (CoalescingCache.BulkLoad bulkLoad = cache.beginBulkLoad(List.of(1L, 2L, 3L))) {
+            cache.evict(1L);
+            // A single-key miss meanwhile caches its own value and leaves the key to it
+            assertThat(cache.get(2L, () -> "loaded alone")).isEqualTo("loaded alone");
+
+            assertThat(bulkLoad.isCurrent(1L)).isFalse();
+            assertThat(bulkLoad.isCurrent(2L)).isFalse();
+            assertThat(bulkLoad.isCurrent(3L)).isTrue();
+        }
+        assertThat(cache.get(3L, () -> "after bulk load")).isEqualTo("after bulk load");
+        assertThat(cache.getCoalescedCount()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testGetWithLoader_ShouldStopWaitingOnceTheLockHolderGaveUp() {
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Another node holds the lock, then releases it after its load failed
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false, true);
+        when(stringRedisTemplate.hasKey(eq("lock::cache::product-by-id::1"))).thenReturn(false);
+        CoalescingCache cache = new CoalescingCache(delegate, stringRedisTemplate, Duration.ofSeconds(10), null,
+                refreshTasks::add);
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            throw new IllegalStateException("Product not found by id: 1");
+        })).hasRootCauseMessage("Product not found by id: 1");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(1));
+        assertThat(cache.getLoadFailureCount()).isEqualTo(1);
+    }
+}
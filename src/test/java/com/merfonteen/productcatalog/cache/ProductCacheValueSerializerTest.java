@@ -0,0 +1,95 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheValueSerializerTest {
+
+    private final ProductCacheValueSerializer serializer = new ProductCacheValueSerializer(1024);
+
+    @Test
+    void testSerialize_ShouldRoundTripProductSmallerThanJdkSerialization() {
+        ProductResponseDto product = product(42L);
+
+        byte[] bytes = serializer.serialize(product);
+
+        assertThat(serializer.deserialize(bytes)).isEqualTo(product);
+        assertThat(bytes.length).isLessThan(new JdkSerializationRedisSerializer().serialize(product).length / 4);
+    }
+
+    @Test
+    void testSerialize_ShouldKeepMissingFieldsNull() {
+        ProductResponseDto product = ProductResponseDto.builder()
+                .id(-1L)
+                .name("Name only")
+                .price(new BigDecimal("-12.50"))
+                .build();
+
+        assertThat(serializer.deserialize(serializer.serialize(product))).isEqualTo(product);
+    }
+
+    @Test
+    void testSerialize_ShouldCompressLargeProductLists() {
+        List<ProductResponseDto> products = new ArrayList<>(LongStream.rangeClosed(1, 200).mapToObj(this::product).toList());
+
+        byte[] compressed = serializer.serialize(products);
+        byte[] uncompressed = new ProductCacheValueSerializer(Integer.MAX_VALUE).serialize(products);
+
+        assertThat(compressed.length).isLessThan(uncompressed.length);
+        assertThat(serializer.deserialize(compressed)).isEqualTo(products);
+        assertThat(serializer.deserialize(uncompressed)).isEqualTo(products);
+    }
+
+    @Test
+    void testSerialize_ShouldRoundTripProductPage() {
+        ProductPageResponseDto page = ProductPageResponseDto.builder()
+                .products(LongStream.rangeClosed(1, 3).mapToObj(this::product).toList())
+                .currentPage(2)
+                .totalPages(40)
+                .totalElements(800L)
+                .isLastPage(false)
+                .build();
+
+        assertThat(serializer.deserialize(serializer.serialize(page))).isEqualTo(page);
+    }
+
+    @Test
+    void testSerialize_ShouldRoundTripNullValueAndFallBackForOtherTypes() {
+        assertThat(serializer.deserialize(serializer.serialize(NullValue.INSTANCE))).isSameAs(NullValue.INSTANCE);
+        assertThat(serializer.deserialize(serializer.serialize(Map.of("k", 1)))).isEqualTo(Map.of("k", 1));
+    }
+
+    @Test
+    void testDeserialize_ShouldTreatOtherSchemaVersionsAndLegacyEntriesAsMiss() {
+        byte[] bytes = serializer.serialize(product(1L));
+        bytes[1] = ProductCacheValueSerializer.SCHEMA_VERSION + 1;
+
+        assertThat(serializer.deserialize(bytes)).isNull();
+        assertThat(serializer.deserialize(new JdkSerializationRedisSerializer().serialize(product(1L)))).isNull();
+    }
+
+    private ProductResponseDto product(long id) {
+        return ProductResponseDto.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description of product " + id)
+                .price(BigDecimal.valueOf(id * 199, 2))
+                .category("Category " + id % 5)
+                .stock((int) id)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_789))
+                .updatedAt(LocalDateTime.of(2024, 2, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductEtagsTest {
+
+    private final LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Test
+    void testOf_ShouldChangeOnlyWhenProductIsModified() {
+        ProductResponseDto product = product(1L, null);
+        ProductResponseDto sameProduct = product(1L, null);
+        ProductResponseDto updatedProduct = product(1L, createdAt.plusNanos(1_000));
+
+        assertThat(ProductEtags.of(product)).isEqualTo(ProductEtags.of(sameProduct));
+        assertThat(ProductEtags.of(product)).isNotEqualTo(ProductEtags.of(updatedProduct));
+        assertThat(ProductEtags.of(product)).isNotEqualTo(ProductEtags.of(product(2L, null)));
+    }
+
+    @Test
+    void testOfPage_ShouldChangeWhenAnyMemberChanges() {
+        ProductPageResponseDto page = page(product(1L, null), product(2L, null));
+        ProductPageResponseDto samePage = page(product(1L, null), product(2L, null));
+        ProductPageResponseDto changedPage = page(product(1L, null), product(2L, createdAt.plusMinutes(1)));
+
+        assertThat(ProductEtags.of(page)).isEqualTo(ProductEtags.of(samePage));
+        assertThat(ProductEtags.of(page)).isNotEqualTo(ProductEtags.of(changedPage));
+    }
+
+    @Test
+    void testMatches_ShouldUseWeakComparisonOverTagList() {
+        String etag = ProductEtags.of(product(1L, null));
+
+        assertThat(ProductEtags.matches("\"other\", W/\"" + etag + "\"", etag)).isTrue();
+        assertThat(ProductEtags.matches("*", etag)).isTrue();
+        assertThat(ProductEtags.matches("\"other\"", etag)).isFalse();
+        assertThat(ProductEtags.matches(null, etag)).isFalse();
+        assertThat(ProductEtags.matches("\"" + etag + "\"", null)).isFalse();
+    }
+
+    private ProductResponseDto product(Long id, LocalDateTime updatedAt) {
+        return ProductResponseDto.builder()
+                .id(id)
+                .name("Lamp")
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private static ProductPageResponseDto page(ProductResponseDto... products) {
+        return ProductPageResponseDto.builder()
+                .products(List.of(products))
+                .currentPage(0)
+                .totalPages(1)
+                .totalElements((long) products.length)
+                .isLastPage(true)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.merfonteen.productcatalog.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remoteCache;
+    private TwoLevelCache twoLevelCache;
+    private final List<String> publishedKeys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        remoteCache = new ConcurrentMapCache("product-by-id");
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> localCache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .build();
+        twoLevelCache = new TwoLevelCache("product-by-id", localCache, remoteCache,
+                (cacheName, key, prefix) -> publishedKeys.add(prefix ? key + "*" : key));
+    }
+
+    @Test
+    void testGet_ShouldPopulateLocalTierFromRemoteTier() {
+        remoteCache.put(1L, "product");
+
+        assertThat(twoLevelCache.get(1L).get()).isEqualTo("product");
+        remoteCache.evict(1L);
+        assertThat(twoLevelCache.get(1L).get()).isEqualTo("product");
+
+        assertThat(twoLevelCache.getRemoteHitCount()).isEqualTo(1);
+        assertThat(twoLevelCache.getLocalCache().stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetWithLoader_ShouldLoadOnceAndStoreInBothTiers() {
+        String value = twoLevelCache.get(1L, () -> "loaded");
+
+        assertThat(value).isEqualTo("loaded");
+        assertThat(remoteCache.get(1L).get()).isEqualTo("loaded");
+        assertThat(twoLevelCache.get(1L, () -> "reloaded")).isEqualTo("loaded");
+        assertThat(twoLevelCache.getRemoteMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testEvict_ShouldEvictBothTiersAndBroadcast() {
+        twoLevelCache.put(1L, "product");
+
+        twoLevelCache.evict(1L);
+
+        assertThat(twoLevelCache.get(1L)).isNull();
+        assertThat(remoteCache.get(1L)).isNull();
+        assertThat(publishedKeys).containsExactly("1");
+    }
+
+    @Test
+    void testEvictLocal_ShouldKeepRemoteTier() {
+        twoLevelCache.put(1L, "product");
+
+        twoLevelCache.evictLocal("1");
+
+        assertThat(twoLevelCache.getLocalCache().getIfPresent("1")).isNull();
+        assertThat(remoteCache.get(1L).get()).isEqualTo("product");
+        assertThat(publishedKeys).isEmpty();
+    }
+
+    @Test
+    void testEvictByPrefix_ShouldDropMatchingLocalEntriesAndBroadcastPrefix() {
+        twoLevelCache.put("books|0|20", "page");
+        twoLevelCache.put("books|1|20", "page");
+        twoLevelCache.put("comics|0|20", "page");
+
+        twoLevelCache.evictByPrefix("books|");
+
+        assertThat(twoLevelCache.getLocalCache().asMap()).containsOnlyKeys("comics|0|20");
+        assertThat(publishedKeys).containsExactly("books|*");
+    }
+}
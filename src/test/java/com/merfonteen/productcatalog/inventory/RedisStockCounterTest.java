@@ -0,0 +1,121 @@
+package com.merfonteen.productcatalog.inventory;
+
+import com.merfonteen.productcatalog.config.WriteBehindStockProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the stock Lua scripts against a real, embedded redis-server.
+ */
+class RedisStockCounterTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private RedisStockCounter redisStockCounter;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        WriteBehindStockProperties properties = new WriteBehindStockProperties();
+        properties.setEnabled(true);
+        properties.setHotProductIds(Set.of(1L, 2L));
+        redisStockCounter = new RedisStockCounter(stringRedisTemplate, properties);
+    }
+
+    @Test
+    void testAdjust_ShouldRejectReservationsThatWouldOversell() {
+        redisStockCounter.seed(1L, 3);
+
+        assertThat(redisStockCounter.adjust(1L, -2))
+                .isEqualTo(new StockAdjustment(StockAdjustment.Status.APPLIED, 1));
+        assertThat(redisStockCounter.adjust(1L, -2))
+                .isEqualTo(new StockAdjustment(StockAdjustment.Status.INSUFFICIENT_STOCK, 1));
+        assertThat(redisStockCounter.adjust(1L, -1))
+                .isEqualTo(new StockAdjustment(StockAdjustment.Status.APPLIED, 0));
+        assertThat(redisStockCounter.adjust(1L, 5))
+                .isEqualTo(new StockAdjustment(StockAdjustment.Status.APPLIED, 5));
+
+        // The rejected reservation left no pending delta behind
+        assertThat(redisStockCounter.claimBatch().deltas()).containsExactly(Map.entry(1L, 2L));
+    }
+
+    @Test
+    void testAdjust_ShouldReportMissingCounter() {
+        assertThat(redisStockCounter.adjust(2L, -1))
+                .isEqualTo(new StockAdjustment(StockAdjustment.Status.NOT_LOADED, 0));
+        assertThat(redisStockCounter.claimBatch()).isNull();
+    }
+
+    @Test
+    void testClaimBatch_ShouldReplayUncompletedBatchAfterCrash() {
+        redisStockCounter.seed(1L, 10);
+        redisStockCounter.seed(2L, 10);
+        redisStockCounter.adjust(1L, -3);
+        redisStockCounter.adjust(2L, -1);
+
+        StockFlushBatch first = redisStockCounter.claimBatch();
+        // The flushing node dies before completeBatch; reservations keep coming in meanwhile
+        redisStockCounter.adjust(1L, -4);
+        StockFlushBatch replayed = redisStockCounter.claimBatch();
+
+        assertThat(replayed.batchId()).isEqualTo(first.batchId());
+        assertThat(replayed.deltas()).isEqualTo(Map.of(1L, -3L, 2L, -1L));
+
+        redisStockCounter.completeBatch();
+        StockFlushBatch next = redisStockCounter.claimBatch();
+        assertThat(next.batchId()).isNotEqualTo(first.batchId());
+        assertThat(next.deltas()).isEqualTo(Map.of(1L, -4L));
+
+        redisStockCounter.completeBatch();
+        assertThat(redisStockCounter.claimBatch()).isNull();
+    }
+
+    @Test
+    void testSeed_ShouldAddDeltasTheDatabaseHasNotSeen() {
+        redisStockCounter.seed(1L, 10);
+        redisStockCounter.adjust(1L, -4);
+        // Redis lost the counter but not the pending deltas
+        stringRedisTemplate.delete("stock::product::1");
+
+        assertThat(redisStockCounter.seed(1L, 10)).isEqualTo(6);
+        assertThat(redisStockCounter.adjust(1L, -6).status()).isEqualTo(StockAdjustment.Status.APPLIED);
+    }
+}
@@ -0,0 +1,123 @@
+package com.merfonteen.productcatalog.inventory;
+
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.config.WriteBehindStockProperties;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Flushes against an in-memory H2 database with the stock columns of the real schema.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockWriteBehindFlusherTest {
+
+    @Mock
+    private RedisStockCounter redisStockCounter;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private JdbcTemplate jdbcTemplate;
+    private StockWriteBehindFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:stock_flush_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE products (
+                    id BIGINT PRIMARY KEY, name VARCHAR(255), description VARCHAR(255), category VARCHAR(255), stock INTEGER,
+                    version BIGINT DEFAULT 0 NOT NULL, updated_at TIMESTAMP)
+                """);
+        jdbcTemplate.execute("CREATE TABLE stock_flush_state (id INTEGER PRIMARY KEY, last_batch_id VARCHAR(36) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO stock_flush_state (id, last_batch_id) VALUES (1, '')");
+        jdbcTemplate.update("INSERT INTO products (id, name, category, stock) VALUES (1, 'Atlas', 'Books', 2), (2, 'Chess', 'Games', 5), (3, 'Kite', 'Toys', 0)");
+
+        WriteBehindStockProperties properties = new WriteBehindStockProperties();
+        properties.setEnabled(true);
+        flusher = new StockWriteBehindFlusher(redisStockCounter, properties, productRepository, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), cacheManager,
+                productCacheInvalidator, applicationEventPublisher);
+        when(redisStockCounter.tryLockFlush()).thenReturn("token");
+    }
+
+    @Test
+    void testFlush_ShouldApplyReplayedBatchOnlyOnce() {
+        StockFlushBatch batch = batch("batch-1", Map.of(2L, -3L));
+        when(redisStockCounter.claimBatch()).thenReturn(batch, batch, null);
+        // Redis goes away after the database commit, so the batch is claimed again on the next run
+        doThrow(new RedisConnectionFailureException("connection lost"))
+                .doNothing()
+                .when(redisStockCounter).completeBatch();
+
+        flusher.flush();
+        flusher.flush();
+        flusher.flush();
+
+        assertThat(stockOf(2L)).isEqualTo(2);
+        assertThat(versionOf(2L)).isEqualTo(1);
+        verify(redisStockCounter, times(2)).completeBatch();
+        verify(redisStockCounter, times(3)).unlockFlush("token");
+        verify(applicationEventPublisher).publishEvent(new ProductChangedEvent(2L, "Chess", null, "Games", false));
+    }
+
+    @Test
+    void testFlush_ShouldEvictListingsOfProductsCrossingZero() {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        deltas.put(1L, -2L);
+        deltas.put(2L, -1L);
+        deltas.put(3L, 4L);
+        when(redisStockCounter.claimBatch()).thenReturn(batch("batch-2", deltas));
+
+        flusher.flush();
+
+        assertThat(stockOf(1L)).isZero();
+        assertThat(stockOf(2L)).isEqualTo(4);
+        assertThat(stockOf(3L)).isEqualTo(4);
+        ArgumentCaptor<String[]> categories = ArgumentCaptor.forClass(String[].class);
+        verify(productCacheInvalidator).evictCategories(categories.capture());
+        assertThat(categories.getValue()).containsExactlyInAnyOrder("Books", "Toys");
+        verify(applicationEventPublisher, times(3)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    private static StockFlushBatch batch(String batchId, Map<Long, Long> deltas) {
+        return new StockFlushBatch(batchId, deltas);
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private long versionOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = ?", Long.class, productId);
+    }
+}
@@ -0,0 +1,113 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; each one knows only its own name.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+                database("routing_primary", "primary"), database("routing_replica", "replica"), readYourWritesTracker);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    void testRouting_ShouldSendReadOnlyTransactionsToReplica() {
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void testRouting_ShouldKeepRecentWriterOnPrimary() {
+        ReplicaRoutingContext.start(7L);
+        when(readYourWritesTracker.isSticky(7L)).thenReturn(true);
+
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+        ReplicaRoutingContext.start(8L);
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void testRouting_ShouldStartReadYourWritesWindowOnCommit() {
+        ReplicaRoutingContext.start(7L);
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        verify(readYourWritesTracker).markWrite(7L);
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+        verify(readYourWritesTracker, never()).isSticky(anyLong());
+    }
+
+    @Test
+    void testRouting_ShouldReloadCachedValueFromPrimaryWhileReplicaLags() {
+        Cache cache = new ConcurrentMapCache("product-by-id");
+        cache.put(1L, "primary");
+
+        // The replica has not applied the update yet
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = 'updated'"));
+        cache.evict(1L);
+        String reloaded = cache.get(1L, () -> readOnly.execute(status -> PrimaryReads.call(this::node)));
+
+        assertThat(reloaded).isEqualTo("updated");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    private String nodeIn(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String database, String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
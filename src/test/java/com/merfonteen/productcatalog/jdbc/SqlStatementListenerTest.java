@@ -0,0 +1,81 @@
+package com.merfonteen.productcatalog.jdbc;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.merfonteen.productcatalog.config.SqlLoggingProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementListenerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SqlStatementListener.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private SqlStatementListener listener;
+
+    @BeforeEach
+    void setUp() {
+        SqlLoggingProperties properties = new SqlLoggingProperties();
+        properties.setSlowQueryThreshold(Duration.ofMillis(100));
+        listener = new SqlStatementListener(properties);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testAfterQuery_ShouldLogSlowStatementWithBindParameters() throws Exception {
+        listener.afterQuery(execution(150), List.of(query("select * from products where id = ?", 42L)));
+        listener.afterQuery(execution(5), List.of(query("select * from products where id = ?", 43L)));
+
+        assertThat(appender.list).hasSize(1);
+        ILoggingEvent event = appender.list.get(0);
+        assertThat(event.getLevel()).isEqualTo(Level.WARN);
+        assertThat(event.getFormattedMessage())
+                .contains("150 ms")
+                .contains("select * from products where id = ?")
+                .contains("[(42)]");
+    }
+
+    @Test
+    void testAfterQuery_ShouldCountStatementsOnlyWhileTracking() throws Exception {
+        listener.afterQuery(execution(1), List.of(query("select 1", 1L)));
+
+        SqlStatementCounter.start();
+        listener.afterQuery(execution(1), List.of(query("select 1", 1L)));
+        listener.afterQuery(execution(1), List.of(query("select 1", 1L)));
+
+        assertThat(SqlStatementCounter.stop()).isEqualTo(2);
+        assertThat(SqlStatementCounter.stop()).isZero();
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static QueryInfo query(String sql, Object parameter) throws Exception {
+        QueryInfo queryInfo = new QueryInfo(sql);
+        queryInfo.getParametersList().add(List.of(new ParameterSetOperation(
+                PreparedStatement.class.getMethod("setObject", int.class, Object.class), new Object[]{1, parameter})));
+        return queryInfo;
+    }
+}
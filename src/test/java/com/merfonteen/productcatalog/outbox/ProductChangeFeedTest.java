@@ -0,0 +1,80 @@
+package com.merfonteen.productcatalog.outbox;
+
+import com.merfonteen.productcatalog.config.ProductOutboxProperties;
+import com.merfonteen.productcatalog.dto.ProductChangeDto;
+import com.merfonteen.productcatalog.dto.ProductChangeType;
+import com.merfonteen.productcatalog.dto.ProductChangesResponseDto;
+import com.merfonteen.productcatalog.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedTest {
+
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private ProductChangeFeed productChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        ProductOutboxProperties properties = new ProductOutboxProperties();
+        properties.setMaxChangesPerPoll(2);
+        productChangeFeed = new ProductChangeFeed(productOutboxRepository, properties, listenerContainer, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testChangesSince_ShouldAnswerRightAwayWhenChangesExist() {
+        when(productOutboxRepository.findRelayedAfter(5L, 3)).thenReturn(List.of(change(6), change(7), change(8)));
+
+        DeferredResult<ProductChangesResponseDto> result = productChangeFeed.changesSince(5L, 10);
+
+        ProductChangesResponseDto page = (ProductChangesResponseDto) result.getResult();
+        assertThat(page.getChanges()).extracting(ProductChangeDto::getPosition).containsExactly(6L, 7L);
+        assertThat(page.getNextSince()).isEqualTo(7L);
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    @Test
+    void testChangesSince_ShouldWaitUntilRelayAnnouncesNewPosition() {
+        when(productOutboxRepository.findRelayedAfter(7L, 3))
+                .thenReturn(List.of())
+                .thenReturn(List.of(change(8)));
+
+        DeferredResult<ProductChangesResponseDto> result = productChangeFeed.changesSince(7L, 100);
+        assertThat(result.hasResult()).isFalse();
+
+        productChangeFeed.onMessage(notification(7L), null);
+        productChangeFeed.onMessage(notification(8L), null);
+
+        ProductChangesResponseDto page = (ProductChangesResponseDto) result.getResult();
+        assertThat(page.getChanges()).extracting(ProductChangeDto::getPosition).containsExactly(8L);
+        assertThat(page.isHasMore()).isFalse();
+        verify(productOutboxRepository, times(2)).findRelayedAfter(7L, 3);
+    }
+
+    private static ProductChangeDto change(long position) {
+        return ProductChangeDto.builder().position(position).productId(position).type(ProductChangeType.UPSERTED).build();
+    }
+
+    private static DefaultMessage notification(long position) {
+        return new DefaultMessage(ProductOutboxRelay.CHANGES_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                String.valueOf(position).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.merfonteen.productcatalog.outbox;
+
+import com.merfonteen.productcatalog.config.ProductOutboxProperties;
+import com.merfonteen.productcatalog.dto.ProductChangeType;
+import com.merfonteen.productcatalog.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductOutboxRelayTest {
+
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ProductOutboxProperties properties = new ProductOutboxProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProductOutboxRelay productOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        properties.setStreamEnabled(false);
+        productOutboxRelay = new ProductOutboxRelay(productOutboxRepository, properties,
+                new TransactionTemplate(transactionManager), stringRedisTemplate, meterRegistry);
+    }
+
+    @Test
+    void testRelay_ShouldDrainBacklogInOrderAndAnnounceLastPosition() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(productOutboxRepository.lockLastPosition()).thenReturn(41L, 43L);
+        List<ProductOutboxEntry> first = List.of(entry(1), entry(2));
+        List<ProductOutboxEntry> second = List.of(entry(3));
+        when(productOutboxRepository.findUnrelayed(2)).thenReturn(first).thenReturn(second);
+
+        productOutboxRelay.relay();
+
+        verify(productOutboxRepository).markRelayed(eq(first), eq(42L), any());
+        verify(productOutboxRepository).markRelayed(eq(second), eq(44L), any());
+        verify(stringRedisTemplate).convertAndSend(ProductOutboxRelay.CHANGES_CHANNEL, "44");
+        assertThat(meterRegistry.get("outbox.relayed").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testRelay_ShouldSkipWhenAnotherNodeHoldsTheLock() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        productOutboxRelay.relay();
+
+        verifyNoInteractions(productOutboxRepository);
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    private static ProductOutboxEntry entry(long id) {
+        return new ProductOutboxEntry(id, id, ProductChangeType.UPSERTED, "Product " + id, "Home", LocalDateTime.now());
+    }
+}
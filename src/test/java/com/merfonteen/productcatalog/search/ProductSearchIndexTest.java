@@ -0,0 +1,66 @@
+package com.merfonteen.productcatalog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex = new ProductSearchIndex();
+        productSearchIndex.index(1L, "Office Chair", "Comfortable ergonomic chair", "Furniture");
+        productSearchIndex.index(2L, "Desk Lamp", "Lamp for an office desk", "Home");
+        productSearchIndex.index(3L, "Gaming Chair", "Racing style chair with lumbar pillow", "Furniture");
+        productSearchIndex.index(4L, "Café Table", "Small round table", "Furniture");
+    }
+
+    @Test
+    void testSearch_ShouldRankNameMatchesAboveDescriptionMatchesAndCountCategories() {
+        ProductSearchHits hits = productSearchIndex.search("office", null, 0, 10);
+
+        assertThat(hits.productIds()).containsExactly(1L, 2L);
+        assertThat(hits.totalHits()).isEqualTo(2);
+        assertThat(hits.categoryCounts()).containsExactly(
+                entry("Furniture", 1L),
+                entry("Home", 1L));
+    }
+
+    @Test
+    void testSearch_ShouldRequireAllTermsAndMatchLastTermAsPrefix() {
+        assertThat(productSearchIndex.search("chair lumb", null, 0, 10).productIds()).containsExactly(3L);
+        assertThat(productSearchIndex.search("cha", null, 0, 10).productIds()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(productSearchIndex.search("CAFE", null, 0, 10).productIds()).containsExactly(4L);
+    }
+
+    @Test
+    void testSearch_ShouldFilterByCategoryButKeepFacetsOfAllMatches() {
+        ProductSearchHits hits = productSearchIndex.search("office", "Home", 0, 10);
+
+        assertThat(hits.productIds()).containsExactly(2L);
+        assertThat(hits.categoryCounts()).containsOnlyKeys("Furniture", "Home");
+    }
+
+    @Test
+    void testSearch_ShouldReturnEmptyPageWithTotalsPastTheLastHit() {
+        // 1073741824 * 20 wraps to 0 in int arithmetic
+        ProductSearchHits hits = productSearchIndex.search("chair", null, 1_073_741_824L * 20, 20);
+
+        assertThat(hits.productIds()).isEmpty();
+        assertThat(hits.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void testIndex_ShouldReplacePreviousTermsAndRemoveDeletedProducts() {
+        productSearchIndex.index(1L, "Standing Desk", null, "Furniture");
+        productSearchIndex.remove(2L);
+
+        assertThat(productSearchIndex.search("office", null, 0, 10).productIds()).isEmpty();
+        assertThat(productSearchIndex.search("desk", null, 0, 10).productIds()).containsExactly(1L);
+        assertThat(productSearchIndex.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,122 @@
+package com.merfonteen.productcatalog.search;
+
+import com.merfonteen.productcatalog.config.ProductSearchProperties;
+import com.merfonteen.productcatalog.dto.ProductChangeDto;
+import com.merfonteen.productcatalog.dto.ProductChangeType;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.repository.ProductOutboxRepository;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductOutboxRepository productOutboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final ProductSearchIndex productSearchIndex = new ProductSearchIndex();
+
+    private ProductSearchIndexer productSearchIndexer;
+
+    @BeforeEach
+    void setUp() {
+        ProductSearchProperties properties = new ProductSearchProperties();
+        properties.setCatchUpBatchSize(2);
+        productSearchIndexer = new ProductSearchIndexer(productSearchIndex, productRepository, productOutboxRepository,
+                properties, new TransactionTemplate(transactionManager), entityManager, listenerContainer);
+    }
+
+    @Test
+    void testRebuild_ShouldReplayChangesRelayedDuringTheScan() {
+        productSearchIndex.index(99L, "Stale lamp", null, "Home");
+        when(productOutboxRepository.findLastPosition()).thenReturn(10L);
+        // The scan still sees the old name of product 1; its rename was relayed as position 11 meanwhile
+        when(productRepository.streamAllOrderById())
+                .thenReturn(Stream.of(product(1L, "Desk lamp"), product(2L, "Garden chair")));
+        when(productOutboxRepository.findRelayedAfter(10L, 2)).thenReturn(List.of(change(11L, 1L)));
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product(1L, "Reading lamp")));
+
+        productSearchIndexer.rebuild();
+
+        assertThat(productSearchIndex.size()).isEqualTo(2);
+        assertThat(productSearchIndex.search("reading", null, 0, 10).productIds()).containsExactly(1L);
+        assertThat(productSearchIndex.search("desk", null, 0, 10).productIds()).isEmpty();
+        assertThat(productSearchIndex.search("stale", null, 0, 10).productIds()).isEmpty();
+        verify(productOutboxRepository, never()).findRelayedAfter(eq(0L), anyInt());
+    }
+
+    @Test
+    void testCatchUp_ShouldReindexChangedProductsAndDropDeletedOnes() {
+        when(productOutboxRepository.findLastPosition()).thenReturn(0L);
+        when(productRepository.streamAllOrderById())
+                .thenReturn(Stream.of(product(1L, "Desk lamp"), product(2L, "Garden chair")));
+        when(productOutboxRepository.findRelayedAfter(0L, 2)).thenReturn(List.of());
+        productSearchIndexer.rebuild();
+
+        // A full batch is followed by another read from its last position
+        when(productOutboxRepository.findRelayedAfter(0L, 2)).thenReturn(List.of(change(1L, 2L), change(2L, 3L)));
+        when(productOutboxRepository.findRelayedAfter(2L, 2)).thenReturn(List.of(change(3L, 1L)));
+        when(productRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(product(3L, "Garden table")));
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product(1L, "Desk lamp XL")));
+
+        productSearchIndexer.catchUp();
+
+        assertThat(productSearchIndex.search("garden", null, 0, 10).productIds()).containsExactly(3L);
+        assertThat(productSearchIndex.search("xl", null, 0, 10).productIds()).containsExactly(1L);
+        verify(productOutboxRepository, never()).findRelayedAfter(eq(3L), anyInt());
+    }
+
+    @Test
+    void testCatchUp_ShouldWaitForTheFirstRebuild() {
+        productSearchIndexer.catchUp();
+
+        verify(productOutboxRepository, never()).findRelayedAfter(anyLong(), anyInt());
+    }
+
+    private static Product product(Long id, String name) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .price(BigDecimal.TEN)
+                .category(name.startsWith("Garden") ? "Garden" : "Home")
+                .build();
+    }
+
+    private static ProductChangeDto change(long position, Long productId) {
+        return ProductChangeDto.builder()
+                .position(position)
+                .productId(productId)
+                .type(ProductChangeType.UPSERTED)
+                .build();
+    }
+}
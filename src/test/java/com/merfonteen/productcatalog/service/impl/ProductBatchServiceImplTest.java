@@ -0,0 +1,233 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.cache.RedisBulkCacheOperations;
+import com.merfonteen.productcatalog.config.ProductBatchProperties;
+import com.merfonteen.productcatalog.dto.ProductBatchItemResultDto;
+import com.merfonteen.productcatalog.dto.ProductBatchOperationDto;
+import com.merfonteen.productcatalog.dto.ProductBatchOperationType;
+import com.merfonteen.productcatalog.dto.ProductBatchWriteResponseDto;
+import com.merfonteen.productcatalog.dto.ProductUpdateDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.inventory.RedisStockCounter;
+import com.merfonteen.productcatalog.repository.ProductBatchIdempotencyRepository;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.util.RateLimitedOperation;
+import com.merfonteen.productcatalog.util.RequestRateLimiter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductBatchIdempotencyRepository productBatchIdempotencyRepository;
+
+    @Mock
+    private RequestRateLimiter requestRateLimiter;
+
+    @Mock
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Mock
+    private RedisBulkCacheOperations redisBulkCacheOperations;
+
+    @Mock
+    private RedisStockCounter redisStockCounter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ProductBatchServiceImpl productBatchService;
+
+    private final Long userId = 7L;
+
+    @BeforeEach
+    void setUp() {
+        productBatchService = new ProductBatchServiceImpl(
+                productRepository,
+                productBatchIdempotencyRepository,
+                new ProductBatchProperties(),
+                requestRateLimiter,
+                productCacheInvalidator,
+                redisBulkCacheOperations,
+                redisStockCounter,
+                new TransactionTemplate(transactionManager),
+                entityManager,
+                applicationEventPublisher);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testApplyBatch_ShouldApplyNewOperationsAndReplayRecordedOnes() {
+        Product existing = Product.builder().id(1L).name("Desk").price(BigDecimal.TEN).category("Furniture").build();
+        ProductBatchItemResultDto recorded = ProductBatchItemResultDto.builder()
+                .idempotencyKey("k-replayed").type(ProductBatchOperationType.CREATE).productId(9L).status(201).replayed(true)
+                .build();
+        when(productBatchIdempotencyRepository.findApplied(eq(userId), anyCollection()))
+                .thenReturn(Map.of("k-replayed", recorded));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(existing));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setId(10L));
+            return products;
+        });
+
+        ProductBatchWriteResponseDto response = productBatchService.applyBatch(List.of(
+                create("k-create", "Lamp"),
+                create("k-replayed", "Chair"),
+                update("k-update", 1L, ProductUpdateDto.builder().price(BigDecimal.ONE).build()),
+                delete("k-missing", 2L),
+                create("k-create", "Lamp again")), userId);
+
+        assertThat(response.getResults()).extracting(ProductBatchItemResultDto::getStatus)
+                .containsExactly(201, 201, 200, 404, 400);
+        assertThat(response.getResults().get(0).getProductId()).isEqualTo(10L);
+        assertThat(response.getResults().get(1).isReplayed()).isTrue();
+        assertThat(response.getAppliedOperations()).isEqualTo(2);
+        assertThat(response.getReplayedOperations()).isEqualTo(1);
+        assertThat(response.getFailedOperations()).isEqualTo(2);
+        assertThat(existing.getPrice()).isEqualByComparingTo(BigDecimal.ONE);
+
+        ArgumentCaptor<List<ProductBatchItemResultDto>> applied = ArgumentCaptor.forClass(List.class);
+        verify(productBatchIdempotencyRepository).saveApplied(eq(userId), applied.capture(), any());
+        assertThat(applied.getValue()).extracting(ProductBatchItemResultDto::getIdempotencyKey)
+                .containsExactlyInAnyOrder("k-create", "k-update");
+
+        verify(requestRateLimiter, times(1)).limitRequestsByUserId(userId, RateLimitedOperation.BATCH_WRITE_PRODUCTS);
+        verify(redisBulkCacheOperations).evictAll(Map.of("product-by-id", Set.of(1L, 10L)));
+        verify(productCacheInvalidator).evictCategories("Furniture");
+    }
+
+    @Test
+    void testApplyBatch_ShouldIsolateOperationsOfFailedChunk() {
+        doThrow(new DataIntegrityViolationException("ux_products_name"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("ux_products_name"))
+                .when(productRepository).flush();
+
+        ProductBatchWriteResponseDto response = productBatchService.applyBatch(List.of(
+                create("k-1", "Lamp"),
+                create("k-2", "Taken concurrently")), userId);
+
+        assertThat(response.getResults()).extracting(ProductBatchItemResultDto::getStatus).containsExactly(201, 400);
+        assertThat(response.getFailedOperations()).isEqualTo(1);
+        verify(productBatchIdempotencyRepository, times(1)).saveApplied(eq(userId), anyList(), any());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void testApplyBatch_ShouldLetCreateReuseNameFreedEarlierInBatch() {
+        Product temp = Product.builder().id(8L).name("Temp Q").price(BigDecimal.TEN).build();
+        Product lamp = Product.builder().id(9L).name("Lamp").price(BigDecimal.TEN).build();
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(temp, lamp));
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of("Temp Q", "Lamp"));
+
+        ProductBatchWriteResponseDto response = productBatchService.applyBatch(List.of(
+                create("k-early", "Lamp"),
+                delete("k-delete", 8L),
+                update("k-rename", 9L, ProductUpdateDto.builder().name("Desk Lamp").build()),
+                create("k-create", "Temp Q"),
+                create("k-reuse", "Lamp")), userId);
+
+        assertThat(response.getResults()).extracting(ProductBatchItemResultDto::getStatus)
+                .containsExactly(400, 204, 200, 201, 201);
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).delete(temp);
+        inOrder.verify(productRepository).flush();
+        inOrder.verify(productRepository).saveAll(anyList());
+    }
+
+    @Test
+    void testApplyBatch_ShouldEvictEachChunkOnceItCommits() {
+        ProductBatchProperties properties = new ProductBatchProperties();
+        properties.setChunkSize(1);
+        productBatchService = new ProductBatchServiceImpl(productRepository, productBatchIdempotencyRepository,
+                properties, requestRateLimiter, productCacheInvalidator, redisBulkCacheOperations, redisStockCounter,
+                new TransactionTemplate(transactionManager), entityManager, applicationEventPublisher);
+        when(productRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(Product.builder().id(1L).name("Desk").price(BigDecimal.TEN).category("Furniture").build()))
+                .thenReturn(List.of(Product.builder().id(2L).name("Lamp").price(BigDecimal.TEN).category("Home").build()));
+
+        productBatchService.applyBatch(List.of(
+                update("k-1", 1L, ProductUpdateDto.builder().price(BigDecimal.ONE).build()),
+                update("k-2", 2L, ProductUpdateDto.builder().price(BigDecimal.ONE).build())), userId);
+
+        InOrder inOrder = inOrder(productRepository, redisBulkCacheOperations, productCacheInvalidator);
+        inOrder.verify(redisBulkCacheOperations).evictAll(Map.of("product-by-id", Set.of(1L)));
+        inOrder.verify(productCacheInvalidator).evictCategories("Furniture");
+        inOrder.verify(productRepository).findAllById(anyCollection());
+        inOrder.verify(redisBulkCacheOperations).evictAll(Map.of("product-by-id", Set.of(2L)));
+        inOrder.verify(productCacheInvalidator).evictCategories("Home");
+    }
+
+    @Test
+    void testApplyBatch_ShouldRejectStockChangeOfWriteBehindProduct() {
+        Product hot = Product.builder().id(3L).name("Hot").price(BigDecimal.TEN).stock(5).build();
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(hot));
+        when(redisStockCounter.isManaged(3L)).thenReturn(true);
+
+        ProductBatchWriteResponseDto response = productBatchService.applyBatch(List.of(
+                update("k-stock", 3L, ProductUpdateDto.builder().stock(1).build())), userId);
+
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(409);
+        assertThat(hot.getStock()).isEqualTo(5);
+        verifyNoInteractions(applicationEventPublisher);
+    }
+
+    private static ProductBatchOperationDto create(String key, String name) {
+        return ProductBatchOperationDto.builder()
+                .idempotencyKey(key)
+                .type(ProductBatchOperationType.CREATE)
+                .product(ProductUpdateDto.builder().name(name).price(BigDecimal.TEN).build())
+                .build();
+    }
+
+    private static ProductBatchOperationDto update(String key, Long id, ProductUpdateDto product) {
+        return ProductBatchOperationDto.builder()
+                .idempotencyKey(key)
+                .type(ProductBatchOperationType.UPDATE)
+                .productId(id)
+                .product(product)
+                .build();
+    }
+
+    private static ProductBatchOperationDto delete(String key, Long id) {
+        return ProductBatchOperationDto.builder()
+                .idempotencyKey(key)
+                .type(ProductBatchOperationType.DELETE)
+                .productId(id)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.mapper.ProductMapper;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceImplTest {
+
+    // The repository streams with a JDBC fetch size of 1000, so this crosses two fetch boundaries
+    private static final int CATALOG_SIZE = 2_001;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ProductExportServiceImpl productExportService;
+
+    @BeforeEach
+    void setUp() {
+        productExportService = new ProductExportServiceImpl(
+                productRepository,
+                Mappers.getMapper(ProductMapper.class),
+                entityManager,
+                objectMapper);
+    }
+
+    @Test
+    void testExportProducts_ShouldWriteOneProductPerLineInIdOrderAcrossFetchBoundaries() throws Exception {
+        when(productRepository.streamAllOrderById())
+                .thenReturn(LongStream.rangeClosed(1, CATALOG_SIZE).mapToObj(this::product));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        productExportService.exportProducts(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(CATALOG_SIZE);
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            ProductResponseDto dto = objectMapper.readValue(line, ProductResponseDto.class);
+            assertThat(dto.getName()).isEqualTo("Product " + dto.getId());
+            assertThat(dto.getPrice()).isEqualByComparingTo("9.99");
+            ids.add(dto.getId());
+        }
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids.get(0)).isEqualTo(1L);
+        assertThat(ids.get(ids.size() - 1)).isEqualTo((long) CATALOG_SIZE);
+        // Every streamed entity is detached, so the persistence context stays flat
+        verify(entityManager, times(CATALOG_SIZE)).detach(any(Product.class));
+    }
+
+    @Test
+    void testExportProducts_ShouldWriteNothingForEmptyCatalog() {
+        when(productRepository.streamAllOrderById()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        productExportService.exportProducts(out);
+
+        assertThat(out.size()).isZero();
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void testExportProducts_ShouldCloseRepositoryStream() {
+        List<Boolean> closed = new ArrayList<>();
+        when(productRepository.streamAllOrderById())
+                .thenReturn(Stream.of(product(1L)).onClose(() -> closed.add(true)));
+
+        productExportService.exportProducts(new ByteArrayOutputStream());
+
+        assertThat(closed).containsExactly(true);
+    }
+
+    private Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal("9.99"))
+                .category("Books")
+                .stock(5)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .version(0L)
+                .build();
+    }
+}
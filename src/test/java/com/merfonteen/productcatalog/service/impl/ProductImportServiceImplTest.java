@@ -0,0 +1,187 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.dto.ProductImportResultDto;
+import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.service.ProductImportFormat;
+import com.merfonteen.productcatalog.util.RateLimitedOperation;
+import com.merfonteen.productcatalog.util.RequestRateLimiter;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RequestRateLimiter requestRateLimiter;
+
+    @Mock
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ProductImportServiceImpl productImportService;
+
+    private final Long userId = 7L;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportServiceImpl(
+                new ObjectMapper(),
+                productRepository,
+                requestRateLimiter,
+                productCacheInvalidator,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(transactionManager),
+                entityManager,
+                applicationEventPublisher);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testImportProducts_ShouldImportValidNdjsonRowsAndReportInvalidOnes() {
+        String body = """
+                {"name":"Lamp","price":19.99,"category":"Home","stock":3}
+                {"name":"Broken",
+                {"name":"No price"}
+
+                {"name":"Existing","price":5.00}
+                {"name":"Lamp","price":21.00}
+                """;
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of("Existing"));
+
+        ProductImportResultDto result = productImportService.importProducts(stream(body), ProductImportFormat.NDJSON, userId);
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Product::getName).containsExactly("Lamp");
+        assertThat(saved.getValue().get(0).getCreatedAt()).isNotNull();
+
+        assertThat(result.getTotalRows()).isEqualTo(5);
+        assertThat(result.getImportedRows()).isEqualTo(1);
+        assertThat(result.getFailedRows()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(error -> error.getLine()).containsExactly(2L, 3L, 5L, 6L);
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("price: Price is required");
+        assertThat(result.getErrors().get(2).getMessage()).isEqualTo("Product with name 'Existing' already exists");
+
+        verify(requestRateLimiter).limitRequestsByUserId(userId, RateLimitedOperation.IMPORT_PRODUCTS);
+        verify(productCacheInvalidator).evictCategories("Home");
+        verify(entityManager).clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testImportProducts_ShouldParseCsvUsingHeaderRow() {
+        String body = """
+                name,price,category,stock,description
+                Desk,120.50,Furniture,4,"Oak, solid"
+                Stool,35,,,
+                """;
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+
+        ProductImportResultDto result = productImportService.importProducts(stream(body), ProductImportFormat.CSV, userId);
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).saveAll(saved.capture());
+        Product desk = saved.getValue().get(0);
+        assertThat(desk.getDescription()).isEqualTo("Oak, solid");
+        assertThat(desk.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(120.50));
+        assertThat(saved.getValue().get(1).getCategory()).isNull();
+        assertThat(result.getImportedRows()).isEqualTo(2);
+        assertThat(result.getFailedRows()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testImportProducts_ShouldKeepLineBreaksInsideQuotedCsvFields() {
+        String body = "name,price,description\n"
+                + "\"Desk Z\",10.00,\"line one\nline two\"\n"
+                + "\n"
+                + "\"Chair Z\",abc,ok\n"
+                + "\"Lamp Z\",5.00,ok\n";
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+
+        ProductImportResultDto result = productImportService.importProducts(stream(body), ProductImportFormat.CSV, userId);
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Product::getName).containsExactly("Desk Z", "Lamp Z");
+        assertThat(saved.getValue().get(0).getDescription()).isEqualTo("line one\nline two");
+        assertThat(result.getTotalRows()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(error -> error.getLine()).containsExactly(5L);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testImportProducts_ShouldInsertRowsOneByOneWhenChunkInsertFails() {
+        String body = """
+                {"name":"Lamp","price":19.99}
+                {"name":"Raced","price":5.00}
+                {"name":"Stool","price":35.00}
+                """;
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+        // Another import inserted "Raced" after the name lookup
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> product.getName().equals("Raced"))) {
+                throw new DataIntegrityViolationException("ux_products_name");
+            }
+            return products;
+        });
+
+        ProductImportResultDto result = productImportService.importProducts(stream(body), ProductImportFormat.NDJSON, userId);
+
+        assertThat(result.getImportedRows()).isEqualTo(2);
+        assertThat(result.getFailedRows()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(error -> error.getLine()).containsExactly(2L);
+        verify(productRepository, times(4)).saveAll(anyList());
+        verify(applicationEventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testImportProducts_ShouldRejectCsvWithoutHeader() {
+        assertThrows(BadRequestException.class,
+                () -> productImportService.importProducts(stream(""), ProductImportFormat.CSV, userId));
+
+        verifyNoInteractions(productRepository);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,28 +1,52 @@
 package com.merfonteen.productcatalog.service.impl;
 
+import com.merfonteen.productcatalog.cache.ProductCacheInvalidator;
+import com.merfonteen.productcatalog.cache.RedisBulkCacheOperations;
+import com.merfonteen.productcatalog.dto.ProductBatchGetResponseDto;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
 import com.merfonteen.productcatalog.dto.ProductPageResponseDto;
 import com.merfonteen.productcatalog.dto.ProductRequestDto;
 import com.merfonteen.productcatalog.dto.ProductResponseDto;
+import com.merfonteen.productcatalog.dto.ProductSortField;
+import com.merfonteen.productcatalog.dto.ProductStockResponseDto;
 import com.merfonteen.productcatalog.dto.ProductUpdateDto;
 import com.merfonteen.productcatalog.entity.Product;
+import com.merfonteen.productcatalog.event.ProductChangedEvent;
 import com.merfonteen.productcatalog.exception.BadRequestException;
+import com.merfonteen.productcatalog.exception.ConflictException;
 import com.merfonteen.productcatalog.exception.NotFoundException;
+import com.merfonteen.productcatalog.exception.TooManyRequestsException;
+import com.merfonteen.productcatalog.inventory.RedisStockCounter;
 import com.merfonteen.productcatalog.mapper.ProductMapper;
 import com.merfonteen.productcatalog.repository.ProductRepository;
+import com.merfonteen.productcatalog.search.ProductNameFilter;
+import com.merfonteen.productcatalog.util.ProductCursor;
+import com.merfonteen.productcatalog.util.RateLimitedOperation;
 import com.merfonteen.productcatalog.util.RequestRateLimiter;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +64,21 @@ class ProductServiceImplTest {
     @Mock
     private RequestRateLimiter requestRateLimiter;
 
+    @Mock
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Mock
+    private RedisBulkCacheOperations redisBulkCacheOperations;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private RedisStockCounter redisStockCounter;
+
+    @Mock
+    private ProductNameFilter productNameFilter;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -87,6 +126,36 @@ class ProductServiceImplTest {
         verifyNoInteractions(productMapper);
     }
 
+    @Test
+    void testGetProductsByIds_ShouldLoadOnlyCacheMissesAndBackfillThem() {
+        ProductResponseDto cachedDto = ProductResponseDto.builder().id(2L).name("Cached Product").build();
+
+        when(redisBulkCacheOperations.getAll("product-by-id", new LinkedHashSet<>(List.of(2L, productId, 3L))))
+                .thenReturn(Map.of(2L, cachedDto));
+        when(redisBulkCacheOperations.loadAll(eq("product-by-id"), eq(List.of(productId, 3L)), any()))
+                .thenAnswer(invocation -> invocation.<Function<Collection<Long>, Map<Long, ProductResponseDto>>>getArgument(2)
+                        .apply(invocation.getArgument(1)));
+        when(productRepository.findAllById(List.of(productId, 3L))).thenReturn(List.of(product));
+        when(productMapper.toDto(product)).thenReturn(responseDto);
+
+        ProductBatchGetResponseDto result = productService.getProductsByIds(List.of(2L, productId, 3L, 2L));
+
+        assertThat(result.getProducts()).containsExactly(cachedDto, responseDto);
+        assertThat(result.getMissingIds()).containsExactly(3L);
+    }
+
+    @Test
+    void testGetProductsByIds_ShouldSkipDatabaseWhenAllCached() {
+        when(redisBulkCacheOperations.getAll("product-by-id", new LinkedHashSet<>(List.of(productId))))
+                .thenReturn(Map.of(productId, responseDto));
+
+        ProductBatchGetResponseDto result = productService.getProductsByIds(List.of(productId));
+
+        assertThat(result.getProducts()).containsExactly(responseDto);
+        assertThat(result.getMissingIds()).isEmpty();
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void testGetProducts_ShouldReturnPaginatedProductList() {
         int page = 0;
@@ -114,7 +183,54 @@ class ProductServiceImplTest {
     }
 
     @Test
-    void testGetProductsByCategory_ShouldReturnProductsByCategory() {
+    void testGetProductsByCursor_ShouldReturnFirstPageWithNextCursorAndNoCount() {
+        Product secondProduct = Product.builder()
+                .id(2L)
+                .name("Second Product")
+                .price(BigDecimal.valueOf(199.99))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .build();
+        List<Product> rows = List.of(secondProduct, product);
+
+        when(productRepository.findFirstKeysetPage(Limit.of(2))).thenReturn(rows);
+        when(productMapper.toDtos(List.of(secondProduct))).thenReturn(List.of(responseDto));
+
+        ProductPageResponseDto result = productService.getProductsByCursor("", 1, false);
+
+        assertThat(result.getProducts()).hasSize(1);
+        assertThat(result.getIsLastPage()).isFalse();
+        assertThat(ProductCursor.decode(result.getNextCursor()))
+                .isEqualTo(new ProductCursor(secondProduct.getCreatedAt(), 2L));
+        assertThat(result.getTotalElements()).isNull();
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void testGetProductsByCursor_ShouldSeekAfterCursorAndCountOnRequest() {
+        ProductCursor cursor = new ProductCursor(LocalDateTime.of(2024, 1, 1, 10, 0), 2L);
+
+        when(productRepository.findKeysetPageAfter(cursor.createdAt(), cursor.id(), Limit.of(11)))
+                .thenReturn(List.of(product));
+        when(productMapper.toDtos(List.of(product))).thenReturn(List.of(responseDto));
+        when(productRepository.count()).thenReturn(2L);
+
+        ProductPageResponseDto result = productService.getProductsByCursor(cursor.encode(), 10, true);
+
+        assertThat(result.getIsLastPage()).isTrue();
+        assertThat(result.getNextCursor()).isNull();
+        assertThat(result.getTotalElements()).isEqualTo(2L);
+        assertThat(result.getTotalPages()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetProductsByCursor_ShouldThrowBadRequestForMalformedCursor() {
+        assertThrows(BadRequestException.class, () -> productService.getProductsByCursor("not-a-cursor", 10, false));
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testGetProductsByCategory_ShouldReturnRequestedPageSortedWithIdTieBreaker() {
         String category = "electronics";
 
         Product secondProduct = Product.builder()
@@ -132,18 +248,58 @@ class ProductServiceImplTest {
                 ProductResponseDto.builder().id(1L).name("Test Product").price(BigDecimal.valueOf(99.99)).build(),
                 ProductResponseDto.builder().id(2L).name("Second Product").price(BigDecimal.valueOf(199.99)).build()
         );
+        ProductCategoryQueryDto query = ProductCategoryQueryDto.builder()
+                .page(1)
+                .size(500)
+                .sortBy(ProductSortField.PRICE)
+                .direction(Sort.Direction.ASC)
+                .minPrice(BigDecimal.valueOf(50))
+                .inStock(true)
+                .build();
 
-        when(productRepository.findAllByCategory(category)).thenReturn(products);
+        when(productRepository.findAll(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(products, PageRequest.of(1, 100), 102));
         when(productMapper.toDtos(products)).thenReturn(dtoList);
 
-        List<ProductResponseDto> result = productService.getProductsByCategory(category);
+        ProductPageResponseDto result = productService.getProductsByCategory(category, query);
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getName()).isEqualTo("Test Product");
-        assertThat(result.get(1).getName()).isEqualTo("Second Product");
+        assertThat(result.getProducts()).extracting(ProductResponseDto::getName)
+                .containsExactly("Test Product", "Second Product");
+        assertThat(result.getCurrentPage()).isEqualTo(1);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        assertThat(result.getIsLastPage()).isTrue();
 
-        verify(productRepository).findAllByCategory(category);
-        verify(productMapper).toDtos(products);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository).findAll(ArgumentMatchers.<Specification<Product>>any(), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(100);
+        assertThat(pageable.getValue().getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "price", "id"));
+        assertThat(query.toCacheKeySegment()).isEqualTo("1|100|price|ASC|50|-|true");
+    }
+
+    @Test
+    void testCategoryCacheKey_ShouldShareKeyForSizesAboveTheCap() {
+        ProductCategoryQueryDto capped = ProductCategoryQueryDto.fromRequest(
+                0, 100, "price", "asc", null, null, false);
+        ProductCategoryQueryDto oversized = ProductCategoryQueryDto.fromRequest(
+                0, 10_000, "price", "asc", null, null, false);
+
+        assertThat(oversized.getSize()).isEqualTo(ProductCategoryQueryDto.MAX_PAGE_SIZE);
+        assertThat(oversized.toCacheKeySegment()).isEqualTo(capped.toCacheKeySegment());
+    }
+
+    @Test
+    void testGetProductsByCategory_ShouldRejectInvertedPriceRange() {
+        ProductCategoryQueryDto query = ProductCategoryQueryDto.builder()
+                .size(20)
+                .sortBy(ProductSortField.CREATED_AT)
+                .direction(Sort.Direction.DESC)
+                .minPrice(BigDecimal.TEN)
+                .maxPrice(BigDecimal.ONE)
+                .build();
+
+        assertThrows(BadRequestException.class, () -> productService.getProductsByCategory("books", query));
+
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -174,17 +330,18 @@ class ProductServiceImplTest {
                 .price(BigDecimal.valueOf(50.0))
                 .build();
 
-        when(productRepository.findByName("New Product")).thenReturn(Optional.empty());
-        when(productRepository.save(any(Product.class))).thenReturn(savedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(savedProduct);
         when(productMapper.toDto(savedProduct)).thenReturn(expectedDto);
 
         ProductResponseDto result = productService.createProduct(requestDto, userId);
 
         assertThat(result).isEqualTo(expectedDto);
-        verify(productRepository).findByName("New Product");
-        verify(productRepository).save(any(Product.class));
-        verify(requestRateLimiter).limitRequestsByUserId(userId);
+        verify(productRepository).saveAndFlush(any(Product.class));
+        verify(productRepository, never()).existsByName(any());
+        verify(requestRateLimiter).limitRequestsByUserId(userId, RateLimitedOperation.CREATE_PRODUCT);
         verify(productMapper).toDto(savedProduct);
+        verify(productCacheInvalidator).evictCategories("books");
+        verify(applicationEventPublisher).publishEvent(ProductChangedEvent.upserted(savedProduct));
     }
 
     @Test
@@ -195,16 +352,51 @@ class ProductServiceImplTest {
                 .price(BigDecimal.valueOf(99.0))
                 .build();
 
-        when(productRepository.findByName("Existing Product"))
-                .thenReturn(Optional.of(product));
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(),
+                        "PUBLIC.UX_PRODUCTS_NAME_INDEX_D ON PUBLIC.PRODUCTS(NAME NULLS FIRST)")));
 
         Exception exception = assertThrows(BadRequestException.class, () -> productService.createProduct(requestDto, userId));
 
         assertEquals("Product with name 'Existing Product' already exists", exception.getMessage());
-        verify(productRepository).findByName("Existing Product");
+        verify(requestRateLimiter).limitRequestsByUserId(userId, RateLimitedOperation.CREATE_PRODUCT);
+        verify(productRepository).saveAndFlush(any(Product.class));
         verifyNoMoreInteractions(productRepository);
-        verifyNoInteractions(requestRateLimiter);
         verifyNoInteractions(productMapper);
+        verifyNoInteractions(productCacheInvalidator);
+        verifyNoInteractions(applicationEventPublisher);
+    }
+
+    @Test
+    void testCreateProduct_ShouldRejectNameKnownToFilterWithoutInsert() {
+        Long userId = 123L;
+        ProductRequestDto requestDto = ProductRequestDto.builder()
+                .name("Existing Product")
+                .price(BigDecimal.valueOf(99.0))
+                .build();
+
+        when(productNameFilter.mightExist("Existing Product")).thenReturn(true);
+        when(productRepository.existsByName("Existing Product")).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> productService.createProduct(requestDto, userId));
+
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    void testCreateProduct_ShouldRethrowOtherIntegrityViolations() {
+        Long userId = 123L;
+        ProductRequestDto requestDto = ProductRequestDto.builder()
+                .name("New Product")
+                .price(BigDecimal.valueOf(99.0))
+                .build();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("value too long for column");
+
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(violation);
+
+        assertThat(assertThrows(DataIntegrityViolationException.class,
+                () -> productService.createProduct(requestDto, userId))).isSameAs(violation);
     }
 
     @Test
@@ -221,6 +413,7 @@ class ProductServiceImplTest {
         Product existing = Product.builder()
                 .id(productId)
                 .name("Old Name")
+                .category("books")
                 .price(BigDecimal.valueOf(10.0))
                 .stock(5)
                 .createdAt(LocalDateTime.now())
@@ -230,6 +423,7 @@ class ProductServiceImplTest {
         Product saved = Product.builder()
                 .id(productId)
                 .name("Updated Name")
+                .category("comics")
                 .price(BigDecimal.valueOf(111.0))
                 .stock(20)
                 .updatedAt(LocalDateTime.now())
@@ -253,9 +447,11 @@ class ProductServiceImplTest {
         assertThat(existing.getStock()).isEqualTo(20);
 
         verify(productRepository).findById(productId);
-        verify(requestRateLimiter).limitRequestsByUserId(userId);
+        verify(requestRateLimiter).limitRequestsByUserId(userId, RateLimitedOperation.UPDATE_PRODUCT);
         verify(productRepository).save(existing);
         verify(productMapper).toDto(saved);
+        verify(productCacheInvalidator).evictCategories("books", "comics");
+        verify(applicationEventPublisher).publishEvent(ProductChangedEvent.upserted(saved));
     }
 
     @Test
@@ -268,12 +464,26 @@ class ProductServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> productService.updateProduct(id, updateDto, userId));
 
+        verify(requestRateLimiter).limitRequestsByUserId(userId, RateLimitedOperation.UPDATE_PRODUCT);
         verify(productRepository).findById(id);
-        verifyNoInteractions(requestRateLimiter);
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(productMapper);
     }
 
+    @Test
+    void testUpdateProduct_ShouldRejectRateLimitedUserBeforeTouchingDatabase() {
+        Long userId = 150L;
+        ProductUpdateDto updateDto = ProductUpdateDto.builder().name("test").build();
+
+        when(requestRateLimiter.limitRequestsByUserId(userId, RateLimitedOperation.UPDATE_PRODUCT))
+                .thenThrow(new TooManyRequestsException("You have exceeded the allowed number of actions, max: 10"));
+
+        assertThrows(TooManyRequestsException.class, () -> productService.updateProduct(50L, updateDto, userId));
+
+        verifyNoInteractions(productRepository);
+        verifyNoInteractions(productCacheInvalidator);
+    }
+
     @Test
     void testDeleteProduct_ShouldDeleteProductSuccessfully() {
         Long id = 1L;
@@ -283,6 +493,8 @@ class ProductServiceImplTest {
 
         verify(productRepository).findById(id);
         verify(productRepository).delete(product);
+        verify(productCacheInvalidator).evictCategories(product.getCategory());
+        verify(applicationEventPublisher).publishEvent(ProductChangedEvent.deleted(product));
     }
 
     @Test
@@ -293,7 +505,77 @@ class ProductServiceImplTest {
         assertThrows(NotFoundException.class, () -> productService.deleteProduct(id));
 
         verify(productRepository).findById(id);
-        verify(productRepository, never()).delete(any());
+        verify(productRepository, never()).delete(any(Product.class));
+    }
+
+    @Test
+    void testUpdateProduct_ShouldRejectStockChangeOfWriteBehindProduct() {
+        when(redisStockCounter.isManaged(productId)).thenReturn(true);
+        ProductUpdateDto updateDto = ProductUpdateDto.builder().stock(5).build();
+
+        assertThrows(ConflictException.class, () -> productService.updateProduct(productId, updateDto, 1L));
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testReserveStock_ShouldDecrementAtomicallyAndEvictListingsWhenSoldOut() {
+        product.setStock(0);
+        product.setCategory("Electronics");
+        when(productRepository.reserveStock(eq(productId), eq(3), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        ProductStockResponseDto result = productService.reserveStock(productId, 3);
+
+        assertThat(result.getStock()).isZero();
+        verify(productRepository, never()).save(any());
+        verify(productCacheInvalidator).evictCategories("Electronics");
+        verify(applicationEventPublisher).publishEvent(ProductChangedEvent.upserted(product));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testReserveStock_ShouldThrowConflictWhenStockIsInsufficient() {
+        product.setStock(2);
+        when(productRepository.reserveStock(eq(productId), eq(3), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> productService.reserveStock(productId, 3));
+
+        assertThat(ex.getMessage()).contains("available 2");
+        verifyNoInteractions(productCacheInvalidator);
+        verifyNoInteractions(applicationEventPublisher);
+    }
+
+    @Test
+    void testReserveStock_ShouldThrowConflictWhenStockIsNotTracked() {
+        product.setStock(null);
+        when(productRepository.reserveStock(eq(productId), eq(1), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> productService.reserveStock(productId, 1));
+
+        assertThat(ex.getMessage()).isEqualTo("Stock is not tracked for product " + productId);
+        verifyNoInteractions(applicationEventPublisher);
+    }
+
+    @Test
+    void testReserveStock_ShouldThrowNotFoundForUnknownProduct() {
+        when(productRepository.reserveStock(eq(999L), eq(1), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> productService.reserveStock(999L, 1));
+    }
+
+    @Test
+    void testReleaseStock_ShouldIncrementAndKeepListingsWhileStillInStock() {
+        product.setStock(7);
+        when(productRepository.releaseStock(eq(productId), eq(2), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        ProductStockResponseDto result = productService.releaseStock(productId, 2);
+
+        assertThat(result.getStock()).isEqualTo(7);
+        verifyNoInteractions(productCacheInvalidator);
+        verify(applicationEventPublisher).publishEvent(ProductChangedEvent.upserted(product));
+    }
+}
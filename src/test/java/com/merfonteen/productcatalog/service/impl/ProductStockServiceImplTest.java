@@ -0,0 +1,69 @@
+package com.merfonteen.productcatalog.service.impl;
+
+import com.merfonteen.productcatalog.dto.ProductStockResponseDto;
+import com.merfonteen.productcatalog.exception.ConflictException;
+import com.merfonteen.productcatalog.inventory.RedisStockCounter;
+import com.merfonteen.productcatalog.inventory.StockAdjustment;
+import com.merfonteen.productcatalog.inventory.StockWriteBehindFlusher;
+import com.merfonteen.productcatalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStockServiceImplTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private RedisStockCounter redisStockCounter;
+
+    @Mock
+    private StockWriteBehindFlusher stockWriteBehindFlusher;
+
+    @InjectMocks
+    private ProductStockServiceImpl productStockService;
+
+    @Test
+    void testReserveStock_ShouldUseDatabaseForProductsNotFlaggedHot() {
+        ProductStockResponseDto response = new ProductStockResponseDto(1L, 4);
+        when(productService.reserveStock(1L, 2)).thenReturn(response);
+
+        assertThat(productStockService.reserveStock(1L, 2)).isSameAs(response);
+
+        verify(redisStockCounter, never()).adjust(any(), anyLong());
+    }
+
+    @Test
+    void testReserveStock_ShouldSeedMissingCounterAndRetry() {
+        when(redisStockCounter.isManaged(1L)).thenReturn(true);
+        when(redisStockCounter.adjust(1L, -2))
+                .thenReturn(new StockAdjustment(StockAdjustment.Status.NOT_LOADED, 0))
+                .thenReturn(new StockAdjustment(StockAdjustment.Status.APPLIED, 8));
+
+        ProductStockResponseDto response = productStockService.reserveStock(1L, 2);
+
+        assertThat(response.getStock()).isEqualTo(8);
+        verify(stockWriteBehindFlusher).seedCounter(1L);
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testReserveStock_ShouldThrowConflictWhenCounterIsShort() {
+        when(redisStockCounter.isManaged(1L)).thenReturn(true);
+        when(redisStockCounter.adjust(1L, -5))
+                .thenReturn(new StockAdjustment(StockAdjustment.Status.INSUFFICIENT_STOCK, 3));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> productStockService.reserveStock(1L, 5));
+
+        assertThat(ex.getMessage()).contains("available 3");
+        verifyNoInteractions(stockWriteBehindFlusher);
+    }
+}
@@ -0,0 +1,98 @@
+package com.merfonteen.productcatalog.util;
+
+import com.merfonteen.productcatalog.config.RateLimitProperties;
+import com.merfonteen.productcatalog.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestRateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RequestRateLimiter requestRateLimiter;
+    private LocalTokenBucketLimiter localTokenBucketLimiter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getOperations().put(RateLimitedOperation.UPDATE_PRODUCT,
+                new RateLimitProperties.Limit(20, Duration.ofMinutes(1)));
+        localTokenBucketLimiter = new LocalTokenBucketLimiter(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        requestRateLimiter = new RequestRateLimiter(stringRedisTemplate, properties, localTokenBucketLimiter, meterRegistry);
+    }
+
+    @Test
+    void testLimitRequestsByUserId_ShouldPassOperationLimitToScriptAndReturnQuota() {
+        when(stringRedisTemplate.execute(ArgumentMatchers.<RedisScript<List>>any(), eq(List.of("limit::product::update_product::user::5")),
+                eq("3000"), eq("60000")))
+                .thenReturn(List.of(1L, 19L, 0L, 3000L));
+
+        RateLimitResult result = requestRateLimiter.limitRequestsByUserId(5L, RateLimitedOperation.UPDATE_PRODUCT);
+
+        assertThat(result.allowed()).isTrue();
+        assertThat(result.limit()).isEqualTo(20);
+        assertThat(result.remaining()).isEqualTo(19);
+        assertThat(result.resetAfter()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get("rate.limiter.redis.latency").tag("operation", "update_product").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testLimitRequestsByUserId_ShouldThrowWithRetryAfterWhenDenied() {
+        when(stringRedisTemplate.execute(ArgumentMatchers.<RedisScript<List>>any(), eq(List.of("limit::product::create_product::user::5")),
+                eq("6000"), eq("60000")))
+                .thenReturn(List.of(0L, 0L, 4500L, 60000L));
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> requestRateLimiter.limitRequestsByUserId(5L, RateLimitedOperation.CREATE_PRODUCT));
+
+        assertThat(exception.getRetryAfter()).isEqualTo(Duration.ofMillis(4500));
+        assertThat(exception.getMessage()).isEqualTo("You have exceeded the allowed number of actions, max: 10");
+    }
+
+    @Test
+    void testLimitRequestsByUserId_ShouldRejectLocallyWithoutCallingRedisOnceBucketIsEmpty() {
+        when(stringRedisTemplate.execute(ArgumentMatchers.<RedisScript<List>>any(), eq(List.of("limit::product::create_product::user::8")),
+                eq("6000"), eq("60000")))
+                .thenReturn(List.of(1L, 0L, 0L, 60000L));
+
+        for (int i = 0; i < 10; i++) {
+            requestRateLimiter.limitRequestsByUserId(8L, RateLimitedOperation.CREATE_PRODUCT);
+        }
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> requestRateLimiter.limitRequestsByUserId(8L, RateLimitedOperation.CREATE_PRODUCT));
+
+        assertThat(exception.getRetryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(6));
+        verify(stringRedisTemplate, times(10)).execute(ArgumentMatchers.<RedisScript<List>>any(), anyList(), any(), any());
+        assertThat(localTokenBucketLimiter.estimatedBucketCount()).isEqualTo(1);
+        assertThat(decisions("allowed", "redis")).isEqualTo(10);
+        assertThat(decisions("denied", "local")).isEqualTo(1);
+    }
+
+    private double decisions(String result, String decidedBy) {
+        return meterRegistry.get("rate.limiter.decisions")
+                .tags("operation", "create_product", "result", result, "decided.by", decidedBy)
+                .counter()
+                .count();
+    }
+}
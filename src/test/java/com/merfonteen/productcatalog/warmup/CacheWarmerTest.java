@@ -0,0 +1,67 @@
+package com.merfonteen.productcatalog.warmup;
+
+import com.merfonteen.productcatalog.config.CacheWarmupProperties;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+
+    @Mock
+    private ProductService productService;
+
+    private final CacheWarmupProperties properties = new CacheWarmupProperties();
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        cacheWarmer = new CacheWarmer(hotKeyTracker, productService, properties);
+    }
+
+    @Test
+    void testWarmUp_ShouldLoadHotProductsInBatchesAndHotCategoryPages() {
+        ProductCategoryQueryDto query = ProductCategoryQueryDto.fromCacheKeySegment("0|20|price|ASC|-|-|false");
+        when(hotKeyTracker.topProductIds(properties.getProducts())).thenReturn(List.of(1L, 2L, 3L));
+        when(hotKeyTracker.topCategoryPages(properties.getCategoryPages()))
+                .thenReturn(List.of(new HotCategoryQuery("Home", query)));
+        when(productService.getProductsByCategory("Home", query)).thenThrow(new IllegalStateException("boom"));
+
+        assertThat(cacheWarmer.isSettled()).isFalse();
+        cacheWarmer.warmUp();
+
+        verify(productService).getProductsByIds(List.of(1L, 2L));
+        verify(productService).getProductsByIds(List.of(3L));
+        assertThat(cacheWarmer.getState()).isEqualTo(CacheWarmer.State.FINISHED);
+        assertThat(cacheWarmer.getTotalLoads()).isEqualTo(3);
+        assertThat(cacheWarmer.getCompletedLoads()).isEqualTo(2);
+        assertThat(cacheWarmer.getFailedLoads()).isEqualTo(1);
+        assertThat(cacheWarmer.isSettled()).isTrue();
+    }
+
+    @Test
+    void testWarmUp_ShouldSettleWithColdCachesWhenRankingIsUnavailable() {
+        when(hotKeyTracker.topProductIds(anyInt())).thenThrow(new RedisConnectionFailureException("down"));
+
+        cacheWarmer.warmUp();
+
+        assertThat(cacheWarmer.getState()).isEqualTo(CacheWarmer.State.FAILED);
+        assertThat(cacheWarmer.isSettled()).isTrue();
+        verify(productService, never()).getProductsByIds(anyList());
+    }
+}
@@ -0,0 +1,49 @@
+package com.merfonteen.productcatalog.warmup;
+
+import com.merfonteen.productcatalog.config.CacheWarmupProperties;
+import com.merfonteen.productcatalog.dto.ProductCategoryQueryDto;
+import com.merfonteen.productcatalog.dto.ProductSortField;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotKeyTrackerTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Test
+    void testTopCategoryPages_ShouldRestoreRecordedQueriesAndSkipMalformedOnes() {
+        ProductCategoryQueryDto query = ProductCategoryQueryDto.builder()
+                .page(1)
+                .size(20)
+                .sortBy(ProductSortField.PRICE)
+                .direction(Sort.Direction.ASC)
+                .minPrice(new BigDecimal("10.50"))
+                .inStock(true)
+                .build();
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.reverseRange(HotKeyTracker.CATEGORY_PAGES_KEY, 0, 9)).thenReturn(new LinkedHashSet<>(List.of(
+                query.toCacheKeySegment() + "|Home|Garden",
+                "garbage")));
+
+        List<HotCategoryQuery> pages = new HotKeyTracker(stringRedisTemplate, new CacheWarmupProperties()).topCategoryPages(10);
+
+        assertThat(pages).containsExactly(new HotCategoryQuery("Home|Garden", query));
+    }
+}